@@ -0,0 +1,70 @@
+package com.kutuphanerezervasyon.kutuphane.config;
+
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+ Katalog listeleri (oda, ekipman, zaman dilimi) için koşullu GET
+ ETag katalog sürümünden üretilir; If-None-Match eşleşirse liste hiç okunmadan ve serileştirilmeden 304 döner
+ max-age 0 ise istemci her seferinde doğrulama yapar (no-cache), değilse o süre boyunca sormadan kullanır
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCachePolicy {
+
+    private final CatalogVersions catalogVersions;
+
+    @Value("${app.http.cache.rooms-max-age-seconds:0}")
+    private long roomsMaxAge;
+
+    @Value("${app.http.cache.equipment-max-age-seconds:0}")
+    private long equipmentMaxAge;
+
+    @Value("${app.http.cache.time-slots-max-age-seconds:300}")
+    private long timeSlotsMaxAge;
+
+    public <T> ResponseEntity<T> respond(Catalog catalog, String ifNoneMatch, Supplier<T> body) {
+        // Sürüm gövdeden önce okunur: arada bir yazma olursa yeni gövde eski etiketle gider, tersi olmaz
+        String etag = catalogVersions.etag(catalog);
+        CacheControl cacheControl = cacheControl(catalog);
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private CacheControl cacheControl(Catalog catalog) {
+        long maxAge = switch (catalog) {
+            case ROOMS -> roomsMaxAge;
+            case EQUIPMENT -> equipmentMaxAge;
+            case TIME_SLOTS -> timeSlotsMaxAge;
+        };
+        return maxAge > 0 ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic() : CacheControl.noCache();
+    }
+
+    // If-None-Match birden fazla etiket içerebilir; GET için zayıf karşılaştırma yapılır (W/ öneki yok sayılır)
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
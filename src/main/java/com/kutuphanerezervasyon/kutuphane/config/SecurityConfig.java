@@ -1,5 +1,6 @@
 package com.kutuphanerezervasyon.kutuphane.config;
 
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -41,6 +42,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/rooms/**").permitAll()
                 .requestMatchers("/api/equipment/**").permitAll()
                 .requestMatchers("/api/timeslots/**").permitAll()
+                .requestMatchers("/api/availability/**").permitAll()
                 .requestMatchers("/api/reservations/**").permitAll()
                 .requestMatchers("/api/users/**").permitAll()
                 .requestMatchers("/api/admin/**").permitAll() // Geçici - JWT eklenene kadar
@@ -62,6 +64,8 @@ public class SecurityConfig {
         // configuration.setAllowedOriginPatterns(List.of("http://localhost:*", "http://127.0.0.1:*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        // Arama uç noktalarının sınır bilgisi tarayıcıdan okunabilsin
+        configuration.setExposedHeaders(List.of(SearchResult.HAS_MORE_HEADER, SearchResult.MAX_RESULTS_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -3,15 +3,20 @@ package com.kutuphanerezervasyon.kutuphane.controller;
 import com.kutuphanerezervasyon.kutuphane.dto.*;
 import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
 import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
-import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
 import com.kutuphanerezervasyon.kutuphane.service.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -31,49 +36,23 @@ public class AdminController {
     private final EquipmentService equipmentService;
     private final ReservationService reservationService;
     private final TimeSlotService timeSlotService;
+    private final ReservationOccupancyIndex occupancyIndex;
+    private final BookingAdmissionQueue admissionQueue;
+    private final ReservationExportService reservationExportService;
+    private final DashboardStatsService dashboardStatsService;
+    private final AvailabilityCache availabilityCache;
+    private final EntityCacheStatsService entityCacheStatsService;
+    private final SearchService searchService;
+    private final AutocompleteIndex autocompleteIndex;
+    private final AvailabilityEventStream availabilityEventStream;
+    private final ReservationBulkService reservationBulkService;
+    private final ReservationAutoConfirmer autoConfirmer;
+    private final ReservationExpirySweeper expirySweeper;
+    private final ReservationPartitionManager partitionManager;
 
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Kullanıcı istatistikleri
-        List<UserDTO> allUsers = userService.getAllUsers();
-        List<UserDTO> adminUsers = userService.getUsersByRole(UserRole.ADMIN);
-        stats.put("totalUsers", allUsers.size());
-        stats.put("totalAdmins", adminUsers.size());
-        stats.put("totalRegularUsers", allUsers.size() - adminUsers.size());
-        
-        // Oda istatistikleri
-        List<RoomDTO> allRooms = roomService.getAllRooms();
-        List<RoomDTO> emptyRooms = roomService.getRoomsByStatus(RoomStatus.EMPTY);
-        List<RoomDTO> occupiedRooms = roomService.getRoomsByStatus(RoomStatus.OCCUPIED);
-        List<RoomDTO> maintenanceRooms = roomService.getRoomsByStatus(RoomStatus.MAINTENANCE);
-        stats.put("totalRooms", allRooms.size());
-        stats.put("emptyRooms", emptyRooms.size());
-        stats.put("occupiedRooms", occupiedRooms.size());
-        stats.put("maintenanceRooms", maintenanceRooms.size());
-        
-        // Ekipman istatistikleri
-        List<EquipmentDTO> allEquipment = equipmentService.getAllEquipment();
-        List<EquipmentDTO> availableEquipment = equipmentService.getEquipmentByStatus(EquipmentStatus.AVAILABLE);
-        List<EquipmentDTO> reservedEquipment = equipmentService.getEquipmentByStatus(EquipmentStatus.RESERVED);
-        List<EquipmentDTO> maintenanceEquipment = equipmentService.getEquipmentByStatus(EquipmentStatus.MAINTENANCE);
-        stats.put("totalEquipment", allEquipment.size());
-        stats.put("availableEquipment", availableEquipment.size());
-        stats.put("reservedEquipment", reservedEquipment.size());
-        stats.put("maintenanceEquipment", maintenanceEquipment.size());
-        
-        // Rezervasyon istatistikleri
-        List<ReservationDTO> allReservations = reservationService.getAllReservations();
-        List<ReservationDTO> pendingReservations = reservationService.getPendingReservations();
-        stats.put("totalReservations", allReservations.size());
-        stats.put("pendingReservations", pendingReservations.size());
-        
-        // Zaman dilimi istatistikleri
-        List<TimeSlotDTO> allTimeSlots = timeSlotService.getAllTimeSlots();
-        stats.put("totalTimeSlots", allTimeSlots.size());
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(dashboardStatsService.getStats());
     }
 
     @GetMapping("/users")
@@ -101,15 +80,27 @@ public class AdminController {
     }
 
     @GetMapping("/reservations")
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        List<ReservationDTO> reservations = reservationService.getAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<ReservationPage> getAllReservations(ReservationQuery query) {
+        ReservationPage page = reservationService.queryReservations(query);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/reservations/all")
-    public ResponseEntity<List<ReservationDTO>> getAllReservationsAlt() {
-        List<ReservationDTO> reservations = reservationService.getAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<ReservationPage> getAllReservationsAlt(ReservationQuery query) {
+        ReservationPage page = reservationService.queryReservations(query);
+        return ResponseEntity.ok(page);
+    }
+
+    // format: ndjson (varsayılan) veya csv - filtreler listeleme ile aynı, satırlar akış olarak yazılır
+    @GetMapping("/reservations/export")
+    public void exportReservations(ReservationQuery query,
+                                   @RequestParam(defaultValue = "ndjson") String format,
+                                   HttpServletResponse response) throws IOException {
+        ReservationExportService.Format exportFormat = ReservationExportService.Format.parse(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"reservations." + exportFormat.getExtension() + "\"");
+        reservationExportService.export(query, exportFormat, response.getOutputStream());
     }
 
     @PatchMapping("/reservations/{id}/cancel")
@@ -130,6 +121,109 @@ public class AdminController {
         return ResponseEntity.ok(reservation);
     }
 
+    @PostMapping("/reservations/bulk-confirm")
+    public ResponseEntity<BulkStatusResult> bulkConfirmReservations(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(reservationBulkService.confirm(request));
+    }
+
+    @PostMapping("/reservations/bulk-cancel")
+    public ResponseEntity<BulkStatusResult> bulkCancelReservations(@RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(reservationBulkService.cancel(request));
+    }
+
+    @GetMapping("/auto-confirm")
+    public ResponseEntity<Map<String, Object>> getAutoConfirmStats() {
+        return ResponseEntity.ok(autoConfirmer.getStats());
+    }
+
+    // Zamanlanmış çalışmayı beklemeden bekleyenleri işler
+    @PostMapping("/auto-confirm/run")
+    public ResponseEntity<BulkStatusResult> runAutoConfirm() {
+        return ResponseEntity.ok(autoConfirmer.run());
+    }
+
+    @GetMapping("/expiry-sweeper")
+    public ResponseEntity<Map<String, Object>> getExpirySweeperStats() {
+        return ResponseEntity.ok(expirySweeper.getStats());
+    }
+
+    @PostMapping("/expiry-sweeper/run")
+    public ResponseEntity<Map<String, Object>> runExpirySweeper() {
+        return ResponseEntity.ok(Map.of("expired", expirySweeper.sweep()));
+    }
+
+    @GetMapping("/reservation-partitions")
+    public ResponseEntity<Map<String, Object>> getReservationPartitions() {
+        return ResponseEntity.ok(partitionManager.getStats());
+    }
+
+    // Saklama süresini aşan ayları gece çalışmasını beklemeden arşivler
+    @PostMapping("/reservation-partitions/archive")
+    public ResponseEntity<List<String>> archiveReservationPartitions() {
+        return ResponseEntity.ok(partitionManager.archiveExpired().stream().map(YearMonth::toString).toList());
+    }
+
+    // month: yyyy-MM - arşivlenmiş ayın satırları gzip'li CSV olarak
+    @GetMapping("/reservation-archive/{month}")
+    public ResponseEntity<byte[]> downloadReservationArchive(@PathVariable String month) {
+        YearMonth archiveMonth;
+        try {
+            archiveMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new InvalidOperationException("Ay yyyy-MM biçiminde olmalıdır: " + month);
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations-" + archiveMonth + ".csv.gz\"")
+                .body(partitionManager.getArchive(archiveMonth));
+    }
+
+    @GetMapping("/occupancy-index")
+    public ResponseEntity<Map<String, Object>> getOccupancyIndexStats() {
+        return ResponseEntity.ok(occupancyIndex.getStats());
+    }
+
+    @PostMapping("/occupancy-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildOccupancyIndex() {
+        return ResponseEntity.ok(occupancyIndex.rebuild());
+    }
+
+    @GetMapping("/admission-queue")
+    public ResponseEntity<Map<String, Object>> getAdmissionQueueStats() {
+        return ResponseEntity.ok(admissionQueue.getStats());
+    }
+
+    @GetMapping("/availability-cache")
+    public ResponseEntity<Map<String, Object>> getAvailabilityCacheStats() {
+        return ResponseEntity.ok(availabilityCache.getStats());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> getSearchStats() {
+        return ResponseEntity.ok(searchService.getStats());
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<Map<String, Object>> getAutocompleteStats() {
+        return ResponseEntity.ok(autocompleteIndex.getStats());
+    }
+
+    @GetMapping("/availability-stream")
+    public ResponseEntity<Map<String, Object>> getAvailabilityStreamStats() {
+        return ResponseEntity.ok(availabilityEventStream.getStats());
+    }
+
+    @GetMapping("/hibernate-cache")
+    public ResponseEntity<Map<String, Object>> getHibernateCacheStats() {
+        return ResponseEntity.ok(entityCacheStatsService.getStats());
+    }
+
+    @PostMapping("/hibernate-cache/evict")
+    public ResponseEntity<Map<String, Object>> evictHibernateCache() {
+        return ResponseEntity.ok(entityCacheStatsService.evictAll());
+    }
+
     @PatchMapping("/rooms/{id}/status")
     public ResponseEntity<RoomDTO> updateRoomStatus(
             @PathVariable Integer id,
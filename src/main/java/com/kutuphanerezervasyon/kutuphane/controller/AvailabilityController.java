@@ -0,0 +1,46 @@
+package com.kutuphanerezervasyon.kutuphane.controller;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent.Resource;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityMatrix;
+import com.kutuphanerezervasyon.kutuphane.service.AvailabilityEventStream;
+import com.kutuphanerezervasyon.kutuphane.service.AvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+
+/*
+  Takvim görünümü için toplu müsaitlik endpoint'i
+  Tüm odalar ve ekipmanlar için tarih aralığındaki her zaman diliminin müsaitliğini tek cevapta döner
+  Örnek: GET /api/availability?fromDate=2024-01-15&toDate=2024-01-21
+  Canlı değişiklikler: GET /api/availability/stream?date=2024-01-15&resource=ROOM (text/event-stream)
+ */
+@RestController
+@RequestMapping("/api/availability")
+@RequiredArgsConstructor
+@CrossOrigin(origins = {"http://localhost:4200", "http://localhost:4201", "http://localhost:3000"})
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+    private final AvailabilityEventStream availabilityEventStream;
+
+    @GetMapping
+    public ResponseEntity<AvailabilityMatrix> getAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        return ResponseEntity.ok(availabilityService.getMatrix(fromDate, toDate));
+    }
+
+    // Filtreler isteğe bağlı; tarih verilirse oda/ekipman durum değişiklikleri yine gelir
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Resource resource,
+            @RequestParam(required = false) Integer resourceId) {
+        return availabilityEventStream.subscribe(date, resource, resourceId);
+    }
+}
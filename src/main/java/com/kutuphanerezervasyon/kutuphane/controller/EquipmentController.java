@@ -1,11 +1,16 @@
 package com.kutuphanerezervasyon.kutuphane.controller;
 
+import com.kutuphanerezervasyon.kutuphane.config.CatalogCachePolicy;
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
 import com.kutuphanerezervasyon.kutuphane.dto.EquipmentDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
 import com.kutuphanerezervasyon.kutuphane.service.EquipmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +31,7 @@ import java.util.List;
 public class EquipmentController {
 
     private final EquipmentService equipmentService;
+    private final CatalogCachePolicy catalogCachePolicy;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -41,9 +47,9 @@ public class EquipmentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<EquipmentDTO>> getAllEquipment() {
-        List<EquipmentDTO> equipment = equipmentService.getAllEquipment();
-        return ResponseEntity.ok(equipment);
+    public ResponseEntity<List<EquipmentDTO>> getAllEquipment(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogCachePolicy.respond(Catalog.EQUIPMENT, ifNoneMatch, equipmentService::getAllEquipment);
     }
 
     @GetMapping("/status/{status}")
@@ -58,10 +64,20 @@ public class EquipmentController {
         return ResponseEntity.ok(equipment);
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteItem>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(equipmentService.autocompleteEquipment(prefix, limit));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<EquipmentDTO>> searchEquipment(@RequestParam String keyword) {
-        List<EquipmentDTO> equipment = equipmentService.searchEquipment(keyword);
-        return ResponseEntity.ok(equipment);
+        SearchResult<EquipmentDTO> result = equipmentService.searchEquipment(keyword);
+        return ResponseEntity.ok()
+                .header(SearchResult.HAS_MORE_HEADER, Boolean.toString(result.isHasMore()))
+                .header(SearchResult.MAX_RESULTS_HEADER, Integer.toString(result.getMaxResults()))
+                .body(result.getItems());
     }
 
     @GetMapping("/available")
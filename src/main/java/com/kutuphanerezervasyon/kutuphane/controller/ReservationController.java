@@ -1,8 +1,13 @@
 package com.kutuphanerezervasyon.kutuphane.controller;
 
+import com.kutuphanerezervasyon.kutuphane.dto.BatchReservationResult;
+import com.kutuphanerezervasyon.kutuphane.dto.BookingTicketDTO;
 import com.kutuphanerezervasyon.kutuphane.dto.ReservationDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationPage;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
 import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
 import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import com.kutuphanerezervasyon.kutuphane.service.BookingAdmissionQueue;
 import com.kutuphanerezervasyon.kutuphane.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /*
  Rezervasyon işlemlerini yöneten ana controller
@@ -27,28 +34,55 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final BookingAdmissionQueue admissionQueue;
 
+    // Kabul kuyruğu açıksa istek kuyruğa alınır ve 202 ile bilet döner
     @PostMapping
-    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody ReservationRequest request) {
+    public ResponseEntity<?> createReservation(@Valid @RequestBody ReservationRequest request) {
+        if (admissionQueue.isEnabled()) {
+            BookingTicketDTO ticket = admissionQueue.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reservations/tickets/" + ticket.getTicketId()))
+                    .body(ticket);
+        }
         ReservationDTO reservation = reservationService.createReservation(request);
         return new ResponseEntity<>(reservation, HttpStatus.CREATED);
     }
 
+    // waitMs > 0 ise sonuç hazır olana kadar bekler (long-poll)
+    @GetMapping("/tickets/{ticketId}")
+    public CompletableFuture<ResponseEntity<BookingTicketDTO>> getTicket(
+            @PathVariable String ticketId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return admissionQueue.poll(ticketId, waitMs).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchReservationResult>> createReservationsBatch(
+            @RequestBody List<ReservationRequest> requests) {
+        List<BatchReservationResult> results = reservationService.createReservationsBatch(requests);
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReservationDTO> getReservationById(@PathVariable Integer id) {
         ReservationDTO reservation = reservationService.getReservationById(id);
         return ResponseEntity.ok(reservation);
     }
 
+    // Filtreler: fromDate, toDate, status, roomId, equipmentId, userId - sayfalama: size, cursor
     @GetMapping
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        List<ReservationDTO> reservations = reservationService.getAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<ReservationPage> getAllReservations(ReservationQuery query) {
+        ReservationPage page = reservationService.queryReservations(query);
+        return ResponseEntity.ok(page);
     }
 
+    // fromDate verilmezse saklama süresi (retention-months) kadar geriye gidilir
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ReservationDTO>> getReservationsByUserId(@PathVariable Integer userId) {
-        List<ReservationDTO> reservations = reservationService.getReservationsByUserId(userId);
+    public ResponseEntity<List<ReservationDTO>> getReservationsByUserId(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate) {
+        List<ReservationDTO> reservations = reservationService.getReservationsByUserId(userId, fromDate);
         return ResponseEntity.ok(reservations);
     }
 
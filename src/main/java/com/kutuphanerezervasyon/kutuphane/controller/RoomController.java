@@ -1,11 +1,16 @@
 package com.kutuphanerezervasyon.kutuphane.controller;
 
+import com.kutuphanerezervasyon.kutuphane.config.CatalogCachePolicy;
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
 import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
 import com.kutuphanerezervasyon.kutuphane.service.RoomService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,6 +31,7 @@ import java.util.List;
 public class RoomController {
 
     private final RoomService roomService;
+    private final CatalogCachePolicy catalogCachePolicy;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -41,9 +47,9 @@ public class RoomController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RoomDTO>> getAllRooms() {
-        List<RoomDTO> rooms = roomService.getAllRooms();
-        return ResponseEntity.ok(rooms);
+    public ResponseEntity<List<RoomDTO>> getAllRooms(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogCachePolicy.respond(Catalog.ROOMS, ifNoneMatch, roomService::getAllRooms);
     }
 
     @GetMapping("/status/{status}")
@@ -58,10 +64,20 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AutocompleteItem>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(roomService.autocompleteRooms(prefix, limit));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<RoomDTO>> searchRooms(@RequestParam String keyword) {
-        List<RoomDTO> rooms = roomService.searchRoomsByName(keyword);
-        return ResponseEntity.ok(rooms);
+        SearchResult<RoomDTO> result = roomService.searchRoomsByName(keyword);
+        return ResponseEntity.ok()
+                .header(SearchResult.HAS_MORE_HEADER, Boolean.toString(result.isHasMore()))
+                .header(SearchResult.MAX_RESULTS_HEADER, Integer.toString(result.getMaxResults()))
+                .body(result.getItems());
     }
 
     @GetMapping("/available")
@@ -1,10 +1,13 @@
 package com.kutuphanerezervasyon.kutuphane.controller;
 
+import com.kutuphanerezervasyon.kutuphane.config.CatalogCachePolicy;
 import com.kutuphanerezervasyon.kutuphane.dto.TimeSlotDTO;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
 import com.kutuphanerezervasyon.kutuphane.service.TimeSlotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,6 +28,7 @@ import java.util.List;
 public class TimeSlotController {
 
     private final TimeSlotService timeSlotService;
+    private final CatalogCachePolicy catalogCachePolicy;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -40,9 +44,9 @@ public class TimeSlotController {
     }
 
     @GetMapping
-    public ResponseEntity<List<TimeSlotDTO>> getAllTimeSlots() {
-        List<TimeSlotDTO> timeSlots = timeSlotService.getAllTimeSlots();
-        return ResponseEntity.ok(timeSlots);
+    public ResponseEntity<List<TimeSlotDTO>> getAllTimeSlots(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogCachePolicy.respond(Catalog.TIME_SLOTS, ifNoneMatch, timeSlotService::getAllTimeSlots);
     }
 
     @GetMapping("/range")
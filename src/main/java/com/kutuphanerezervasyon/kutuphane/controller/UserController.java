@@ -1,5 +1,7 @@
 package com.kutuphanerezervasyon.kutuphane.controller;
 
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.dto.UserDTO;
 import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
 import com.kutuphanerezervasyon.kutuphane.service.UserService;
@@ -50,11 +52,22 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/autocomplete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AutocompleteItem>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.autocompleteUsers(prefix, limit));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam String keyword) {
-        List<UserDTO> users = userService.searchUsers(keyword);
-        return ResponseEntity.ok(users);
+        SearchResult<UserDTO> result = userService.searchUsers(keyword);
+        return ResponseEntity.ok()
+                .header(SearchResult.HAS_MORE_HEADER, Boolean.toString(result.isHasMore()))
+                .header(SearchResult.MAX_RESULTS_HEADER, Integer.toString(result.getMaxResults()))
+                .body(result.getItems());
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,18 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Otomatik tamamlama sonucu
+ detail: kullanıcı için email, ekipman için tür, oda için boş
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteItem {
+    private Integer id;
+    private String label;
+    private String detail;
+}
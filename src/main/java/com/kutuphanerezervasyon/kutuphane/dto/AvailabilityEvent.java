@@ -0,0 +1,30 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/*
+ Canlı müsaitlik akışındaki tek değişiklik
+ Rezervasyon olaylarında date/timeSlotId dolu, state: PENDING, BOOKED veya AVAILABLE
+ Oda/ekipman durum değişikliğinde date/timeSlotId boş, state yeni durumdur (EMPTY, MAINTENANCE ...)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityEvent {
+
+    public enum Resource {
+        ROOM, EQUIPMENT
+    }
+
+    private Resource resource;
+    private Integer resourceId;
+    private LocalDate date;
+    private Integer timeSlotId;
+    private String state;
+}
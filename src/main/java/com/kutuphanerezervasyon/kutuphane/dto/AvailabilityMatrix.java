@@ -0,0 +1,36 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ Tarih aralığı için oda/ekipman × zaman dilimi × gün müsaitlik matrisi
+ Her kaynağın days listesi dates ile aynı sıradadır; her gün timeSlots sırasında birer karakterdir
+ '1' müsait, '0' dolu veya kaynak rezervasyona kapalı (bakım vb.)
+ Örnek: dates=[2024-01-15], timeSlots=[9-10, 10-11, 11-12], days=["101"] -> 10-11 dolu
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityMatrix {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<LocalDate> dates;
+    private List<TimeSlotDTO> timeSlots;
+    private List<ResourceAvailability> rooms;
+    private List<ResourceAvailability> equipment;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResourceAvailability {
+        private Integer id;
+        private String name;
+        private String status;
+        private List<String> days;
+    }
+}
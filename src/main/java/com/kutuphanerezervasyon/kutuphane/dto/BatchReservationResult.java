@@ -0,0 +1,27 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Toplu rezervasyon isteğindeki tek bir kalemin sonucu
+ index: istek listesindeki sıra, başarısızsa error alanında sebep döner
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResult {
+    private int index;
+    private boolean success;
+    private ReservationDTO reservation;
+    private String error;
+
+    public static BatchReservationResult success(int index, ReservationDTO reservation) {
+        return new BatchReservationResult(index, true, reservation, null);
+    }
+
+    public static BatchReservationResult failure(int index, String error) {
+        return new BatchReservationResult(index, false, null, error);
+    }
+}
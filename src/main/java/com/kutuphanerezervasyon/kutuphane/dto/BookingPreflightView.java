@@ -0,0 +1,33 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import java.time.LocalTime;
+
+/*
+ Rezervasyon oluşturmadan önceki tüm kontrollerin tek sorguluk sonucu
+ Kullanıcı, zaman dilimi, oda ve ekipman bilgileri ile çakışma/limit bayraklarını içerir
+ */
+public interface BookingPreflightView {
+    Boolean getUserExists();
+    String getUserName();
+    String getUserEmail();
+    String getUserRole();
+
+    Boolean getTimeSlotExists();
+    LocalTime getSlotStartTime();
+    LocalTime getSlotEndTime();
+
+    Boolean getRoomExists();
+    String getRoomName();
+    Integer getRoomCapacity();
+    String getRoomStatus();
+
+    Boolean getEquipmentExists();
+    String getEquipmentName();
+    String getEquipmentType();
+    String getEquipmentStatus();
+
+    Boolean getRoomConflict();
+    Boolean getEquipmentConflict();
+    Boolean getUserConflict();
+    Long getActiveCount();
+}
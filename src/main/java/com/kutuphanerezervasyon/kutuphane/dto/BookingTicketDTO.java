@@ -0,0 +1,21 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import com.kutuphanerezervasyon.kutuphane.enums.BookingTicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Kuyruğa alınan rezervasyon isteğinin bileti
+ TAMAMLANDI ise reservation, HATA ise error ve httpStatus (doğrudan istekte dönecek kod) dolu gelir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingTicketDTO {
+    private String ticketId;
+    private BookingTicketStatus status;
+    private ReservationDTO reservation;
+    private String error;
+    private Integer httpStatus;
+}
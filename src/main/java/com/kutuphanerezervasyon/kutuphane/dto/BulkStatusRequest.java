@@ -0,0 +1,20 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ Toplu onay/iptal isteği
+ reservationIds veya date alanlarından biri verilmelidir; date verilirse o günün tüm bekleyenleri işlenir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+    private List<Integer> reservationIds;
+    private LocalDate date;
+}
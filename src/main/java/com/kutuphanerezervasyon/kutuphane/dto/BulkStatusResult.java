@@ -0,0 +1,22 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ Toplu onay/iptal sonucu
+ updated: durumu değişenler
+ conflicted: onayda aynı oda/ekipman slotunu kaybettiği için iptal edilen bekleyenler
+ skipped: bulunamayan veya artık beklemede olmayan ID'ler
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResult {
+    private List<Integer> updated;
+    private List<Integer> conflicted;
+    private List<Integer> skipped;
+}
@@ -0,0 +1,33 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/*
+ Dışa aktarmada bir rezervasyon satırı - CSV sütunlarıyla uyumlu düz yapı
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"reservationId", "reservationDate", "startTime", "endTime", "status",
+        "userId", "userName", "userEmail", "roomId", "roomName", "equipmentId", "equipmentName"})
+public class ReservationExportRow {
+    private Integer reservationId;
+    private LocalDate reservationDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private ReservationStatus status;
+    private Integer userId;
+    private String userName;
+    private String userEmail;
+    private Integer roomId;
+    private String roomName;
+    private Integer equipmentId;
+    private String equipmentName;
+}
@@ -0,0 +1,20 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ Keyset (cursor) sayfalı rezervasyon listesi
+ hasMore true ise sonraki sayfa nextCursor ile istenir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPage {
+    private List<ReservationDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
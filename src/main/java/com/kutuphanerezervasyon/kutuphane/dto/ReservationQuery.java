@@ -0,0 +1,38 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ Rezervasyon listeleme filtreleri (query parametrelerinden bağlanır)
+ Tüm alanlar opsiyoneldir; cursor bir önceki sayfanın nextCursor değeridir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationQuery {
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;
+
+    private List<ReservationStatus> status;
+
+    private Integer roomId;
+
+    private Integer equipmentId;
+
+    private Integer userId;
+
+    private String cursor;
+
+    private Integer size;
+}
@@ -0,0 +1,19 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+
+import java.time.LocalDate;
+
+/*
+ Rezervasyonun sadece doluluk hesabı için gereken alanları
+ Entity ve ilişkileri yüklemeden toplu okuma yapmak için kullanılır
+ */
+public interface ReservationSlotView {
+    Integer getReservationId();
+    Integer getUserId();
+    Integer getRoomId();
+    Integer getEquipmentId();
+    Integer getTimeSlotId();
+    LocalDate getReservationDate();
+    ReservationStatus getStatus();
+}
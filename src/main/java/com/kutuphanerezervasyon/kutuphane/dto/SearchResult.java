@@ -0,0 +1,24 @@
+package com.kutuphanerezervasyon.kutuphane.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ Arama sonucu - en fazla maxResults kadar satır
+ hasMore true ise sınırın dışında kalan eşleşmeler de vardır, istemci aramayı daraltmalıdır
+ Arama uç noktaları gövdede sadece listeyi döner, bu iki alan cevap başlıklarında gönderilir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult<T> {
+    public static final String HAS_MORE_HEADER = "X-Has-More";
+    public static final String MAX_RESULTS_HEADER = "X-Max-Results";
+
+    private List<T> items;
+    private boolean hasMore;
+    private int maxResults;
+}
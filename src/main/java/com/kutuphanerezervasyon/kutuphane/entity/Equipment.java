@@ -6,8 +6,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,7 +22,10 @@ import java.util.List;
  */
 @Entity
 @Table(name = "equipment")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipment")
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +49,24 @@ public class Equipment {
     @Column(nullable = false, length = 20)
     private EquipmentStatus status = EquipmentStatus.AVAILABLE;
     
+    @ToString.Exclude
     @OneToMany(mappedBy = "equipment", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
+
+    // ID tabanlı eşitlik (bkz. Room)
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Equipment other)) {
+            return false;
+        }
+        return getEquipmentId() != null && getEquipmentId().equals(other.getEquipmentId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Equipment.class.hashCode();
+    }
 }
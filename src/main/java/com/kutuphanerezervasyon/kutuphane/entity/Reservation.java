@@ -5,18 +5,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.time.LocalDate;
 
 /*
   Kullanıcıların oda ve ekipman rezervasyonlarını tutan ana entity
 Her rezervasyon bir kullanıcıya, bir zaman dilimine ve bir oda/ekipmana bağlıdır
+Tablo aylık bölümlüdür; indeksler (kısmi olanlar dahil) ddl-auto ile ifade edilemediği için schema.sql'dedir
  */
 @Entity
 @Table(name = "reservations")
-@Data
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,19 +32,23 @@ public class Reservation {
     @Column(name = "reservation_id")
     private Integer reservationId;
     
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull(message = "Kullanıcı boş olamaz")
     private User user;
     
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = true)
     private Room room;
     
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "equipment_id", nullable = true)
     private Equipment equipment;
     
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "time_slot_id", nullable = false)
     @NotNull(message = "Zaman dilimi boş olamaz")
@@ -74,4 +83,21 @@ public class Reservation {
     public void confirm() {
         this.status = ReservationStatus.ONAYLANDI;
     }
+
+    // ID tabanlı eşitlik (bkz. Room)
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Reservation other)) {
+            return false;
+        }
+        return getReservationId() != null && getReservationId().equals(other.getReservationId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Reservation.class.hashCode();
+    }
 }
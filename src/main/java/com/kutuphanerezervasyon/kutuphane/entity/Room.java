@@ -8,8 +8,12 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,7 +24,10 @@ import java.util.List;
  */
 @Entity
 @Table(name = "rooms")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rooms")
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,6 +52,27 @@ public class Room {
     @Column(nullable = false, length = 20)
     private RoomStatus status = RoomStatus.EMPTY;
     
+    @ToString.Exclude
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
+
+    /*
+     Eşitlik sadece ID'ye bakar: ilişkili koleksiyonlar yüklenmez ve Hibernate proxy'si ile gerçek nesne eşit sayılır
+     Kaydedilmemiş (ID'si olmayan) nesne sadece kendisine eşittir, hashCode kayıttan sonra da değişmez
+     */
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Room other)) {
+            return false;
+        }
+        return getRoomId() != null && getRoomId().equals(other.getRoomId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Room.class.hashCode();
+    }
 }
@@ -4,8 +4,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
@@ -17,7 +21,10 @@ import java.util.List;
  */
 @Entity
 @Table(name = "time_slots")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "time_slots")
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +43,7 @@ public class TimeSlot {
     @Column(nullable = false)
     private LocalTime endTime;
     
+    @ToString.Exclude
     @OneToMany(mappedBy = "timeSlot", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
     
@@ -43,4 +51,21 @@ public class TimeSlot {
     public boolean isValid() {
         return startTime != null && endTime != null && startTime.isBefore(endTime);
     }
+
+    // ID tabanlı eşitlik (bkz. Room)
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimeSlot other)) {
+            return false;
+        }
+        return getTimeSlotId() != null && getTimeSlotId().equals(other.getTimeSlotId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return TimeSlot.class.hashCode();
+    }
 }
@@ -7,8 +7,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +23,10 @@ import java.util.List;
  */
 @Entity
 @Table(name = "users")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@Getter
+@Setter
+@ToString
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,6 +50,7 @@ public class User {
     
     @NotBlank(message = "Şifre boş olamaz")
     @Size(max = 100, message = "Şifre en fazla 100 karakter olabilir")
+    @ToString.Exclude
     @Column(nullable = false, length = 100)
     private String password;
     
@@ -50,6 +58,24 @@ public class User {
     @Column(nullable = false, length = 20)
     private UserRole role = UserRole.USER;
     
+    @ToString.Exclude
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Reservation> reservations = new ArrayList<>();
+
+    // ID tabanlı eşitlik (bkz. Room)
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return getUserId() != null && getUserId().equals(other.getUserId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return User.class.hashCode();
+    }
 }
@@ -0,0 +1,8 @@
+package com.kutuphanerezervasyon.kutuphane.enums;
+
+public enum BookingTicketStatus {
+    KUYRUKTA,       // QUEUED
+    ISLENIYOR,      // PROCESSING
+    TAMAMLANDI,     // COMPLETED
+    HATA            // FAILED
+}
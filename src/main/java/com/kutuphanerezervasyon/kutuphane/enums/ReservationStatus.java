@@ -3,5 +3,6 @@ package com.kutuphanerezervasyon.kutuphane.enums;
 public enum ReservationStatus {
     ONAYLANDI,      // CONFIRMED
     IPTAL_EDILDI,   // CANCELLED
-    BEKLENIYOR      // PENDING/WAITING
+    BEKLENIYOR,     // PENDING/WAITING
+    SURESI_DOLDU    // EXPIRED - tarihi geçtiği halde onaylanmamış
 }
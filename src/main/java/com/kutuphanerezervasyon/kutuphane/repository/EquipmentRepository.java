@@ -2,8 +2,12 @@ package com.kutuphanerezervasyon.kutuphane.repository;
 
 import com.kutuphanerezervasyon.kutuphane.entity.Equipment;
 import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,12 +17,22 @@ import java.util.List;
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Integer> {
     
+    // Sorgu önbelleğinden (bkz. RoomRepository)
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Equipment> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Equipment> findAll(Sort sort);
+    
     List<Equipment> findByStatus(EquipmentStatus status);
     
     List<Equipment> findByType(String type);
     
-    @Query("SELECT e FROM Equipment e WHERE e.name LIKE %:keyword% OR e.type LIKE %:keyword%")
-    List<Equipment> searchEquipment(String keyword);
+    // Admin paneli için - durum bazında ekipman sayıları [status, count]
+    @Query("SELECT e.status, COUNT(e) FROM Equipment e GROUP BY e.status")
+    List<Object[]> countByStatus();
     
     // Belirli tarih ve zaman diliminde müsait ekipmanları bul
     @Query("SELECT e FROM Equipment e WHERE e.equipmentId NOT IN " +
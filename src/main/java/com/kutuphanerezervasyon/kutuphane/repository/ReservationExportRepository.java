@@ -0,0 +1,16 @@
+package com.kutuphanerezervasyon.kutuphane.repository;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationExportRow;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+
+import java.util.stream.Stream;
+
+/*
+ Dışa aktarma için rezervasyonları liste oluşturmadan satır satır okuyan sorgu
+ Satırlar entity değil DTO olarak döner, persistence context'te birikmez
+ Dönen Stream açık bir transaction içinde tüketilmeli ve kapatılmalıdır
+ */
+public interface ReservationExportRepository {
+
+    Stream<ReservationExportRow> streamForExport(ReservationQuery query, int fetchSize);
+}
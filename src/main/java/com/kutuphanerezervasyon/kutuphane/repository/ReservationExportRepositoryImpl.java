@@ -0,0 +1,57 @@
+package com.kutuphanerezervasyon.kutuphane.repository;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationExportRow;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+import com.kutuphanerezervasyon.kutuphane.entity.Equipment;
+import com.kutuphanerezervasyon.kutuphane.entity.Reservation;
+import com.kutuphanerezervasyon.kutuphane.entity.Room;
+import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
+import com.kutuphanerezervasyon.kutuphane.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+/*
+ ReservationRepository'nin dışa aktarma parçası
+ Listeleme ile aynı filtreleri (ReservationSpecifications) kullanır, ilişkiler join ile aynı satırda gelir
+ Sonuç doğrudan ReservationExportRow'a seçilir; entity yüklenmediği için uzun aktarımda bellek sabit kalır
+ JDBC fetch size sayesinde PostgreSQL sonuçları parça parça gönderir (transaction içinde autocommit kapalıyken)
+ */
+class ReservationExportRepositoryImpl implements ReservationExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<ReservationExportRow> streamForExport(ReservationQuery query, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationExportRow> criteriaQuery = cb.createQuery(ReservationExportRow.class);
+        Root<Reservation> root = criteriaQuery.from(Reservation.class);
+        Join<Reservation, User> user = root.join("user");
+        Join<Reservation, TimeSlot> timeSlot = root.join("timeSlot");
+        Join<Reservation, Room> room = root.join("room", JoinType.LEFT);
+        Join<Reservation, Equipment> equipment = root.join("equipment", JoinType.LEFT);
+
+        // Sıra ReservationExportRow kurucusuyla aynı olmalı
+        criteriaQuery.select(cb.construct(ReservationExportRow.class,
+                        root.get("reservationId"), root.get("reservationDate"),
+                        timeSlot.get("startTime"), timeSlot.get("endTime"), root.get("status"),
+                        user.get("userId"), user.get("name"), user.get("email"),
+                        room.get("roomId"), room.get("name"),
+                        equipment.get("equipmentId"), equipment.get("name")))
+                .where(ReservationSpecifications.matching(query, null, null).toPredicate(root, criteriaQuery, cb))
+                .orderBy(cb.asc(root.get("reservationDate")), cb.asc(root.get("reservationId")));
+
+        return entityManager.createQuery(criteriaQuery)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+}
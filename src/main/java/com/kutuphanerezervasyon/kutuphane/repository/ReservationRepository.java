@@ -1,25 +1,50 @@
 package com.kutuphanerezervasyon.kutuphane.repository;
 
+import com.kutuphanerezervasyon.kutuphane.dto.BookingPreflightView;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
 import com.kutuphanerezervasyon.kutuphane.entity.Reservation;
 import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Integer> {
+public interface ReservationRepository extends JpaRepository<Reservation, Integer>,
+        JpaSpecificationExecutor<Reservation>, ReservationExportRepository {
     
-    // Kullanıcının rezervasyonlarını getir
-    List<Reservation> findByUserUserId(Integer userId);
+    /*
+     Listeleme metotları DTO'ya çevrilen tüm ilişkileri (user, room, equipment, timeSlot) entity graph ile
+     aynı sorguda yükler - aksi halde her rezervasyon için 4 ek LAZY sorgu çalışır (N+1)
+     */
+    @Override
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
+    Optional<Reservation> findById(Integer reservationId);
     
+    /*
+     Tablo reservation_date üzerinden aylık bölümlüdür, tarih koşulu olan sorgular sadece ilgili ayların bölümlerini okur
+     Aktif sorgulardaki ">= :today" ve geçmiş sorgularındaki ">= :fromDate" alt sınırı bu yüzden açıkça yazılır:
+     eski ayların bölümleri elenir ve bölüm içinde indeks tek aralık taraması yapar
+     findById tarih bilmediği için bilerek tüm bölümlere bakar (her bölümde birincil anahtar indeksiyle tek satır)
+     */
+
+    // Kullanıcının fromDate'ten itibaren rezervasyonlarını getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
+    @Query("SELECT r FROM Reservation r WHERE r.user.userId = :userId AND r.reservationDate >= :fromDate")
+    List<Reservation> findByUserUserId(@Param("userId") Integer userId, @Param("fromDate") LocalDate fromDate);
+
     // Kullanıcının aktif rezervasyonlarını getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
     @Query("SELECT r FROM Reservation r WHERE r.user.userId = :userId " +
            "AND r.status = 'ONAYLANDI' " +
-           "AND (r.reservationDate > :today OR " +
+           "AND r.reservationDate >= :today AND (r.reservationDate > :today OR " +
            "(r.reservationDate = :today AND r.timeSlot.endTime > :currentTime))")
     List<Reservation> findActiveReservationsByUserId(@Param("userId") Integer userId, 
                                                       @Param("today") LocalDate today,
@@ -28,22 +53,50 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
     // Kullanıcının aktif rezervasyon sayısını al (ONAYLANDI veya BEKLENIYOR)
     @Query("SELECT COUNT(r) FROM Reservation r WHERE r.user.userId = :userId " +
            "AND (r.status = 'ONAYLANDI' OR r.status = 'BEKLENIYOR') " +
-           "AND (r.reservationDate > :today OR " +
+           "AND r.reservationDate >= :today AND (r.reservationDate > :today OR " +
            "(r.reservationDate = :today AND r.timeSlot.endTime > :currentTime))")
     Long countActiveReservationsByUserId(@Param("userId") Integer userId, 
                                          @Param("today") LocalDate today,
                                          @Param("currentTime") java.time.LocalTime currentTime);
     
-    // Oda için rezervasyonları getir
-    List<Reservation> findByRoomRoomId(Integer roomId);
+    // Kota defteri için - kullanıcının aktif rezervasyonları ve bitiş zamanları [reservationId, date, endTime]
+    @Query("SELECT r.reservationId, r.reservationDate, ts.endTime FROM Reservation r JOIN r.timeSlot ts " +
+           "WHERE r.user.userId = :userId " +
+           "AND (r.status = 'ONAYLANDI' OR r.status = 'BEKLENIYOR') " +
+           "AND r.reservationDate >= :today AND (r.reservationDate > :today OR " +
+           "(r.reservationDate = :today AND ts.endTime > :currentTime))")
+    List<Object[]> findActiveReservationEndsByUserId(@Param("userId") Integer userId,
+                                                     @Param("today") LocalDate today,
+                                                     @Param("currentTime") java.time.LocalTime currentTime);
+    
+    // Birden fazla kullanıcının aktif rezervasyon sayıları (toplu rezervasyon için) - [userId, count]
+    @Query("SELECT r.user.userId, COUNT(r) FROM Reservation r WHERE r.user.userId IN :userIds " +
+           "AND (r.status = 'ONAYLANDI' OR r.status = 'BEKLENIYOR') " +
+           "AND r.reservationDate >= :today AND (r.reservationDate > :today OR " +
+           "(r.reservationDate = :today AND r.timeSlot.endTime > :currentTime)) " +
+           "GROUP BY r.user.userId")
+    List<Object[]> countActiveReservationsByUserIds(@Param("userIds") Collection<Integer> userIds,
+                                                    @Param("today") LocalDate today,
+                                                    @Param("currentTime") java.time.LocalTime currentTime);
+    
+    // Oda için fromDate'ten itibaren rezervasyonları getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
+    @Query("SELECT r FROM Reservation r WHERE r.room.roomId = :roomId AND r.reservationDate >= :fromDate")
+    List<Reservation> findByRoomRoomId(@Param("roomId") Integer roomId, @Param("fromDate") LocalDate fromDate);
     
-    // Ekipman için rezervasyonları getir
-    List<Reservation> findByEquipmentEquipmentId(Integer equipmentId);
+    // Ekipman için fromDate'ten itibaren rezervasyonları getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
+    @Query("SELECT r FROM Reservation r WHERE r.equipment.equipmentId = :equipmentId " +
+           "AND r.reservationDate >= :fromDate")
+    List<Reservation> findByEquipmentEquipmentId(@Param("equipmentId") Integer equipmentId,
+                                                 @Param("fromDate") LocalDate fromDate);
     
     // Belirli tarih için rezervasyonları getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
     List<Reservation> findByReservationDate(LocalDate date);
     
     // Belirli durumdaki rezervasyonları getir
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
     List<Reservation> findByStatus(ReservationStatus status);
     
     // Çakışma kontrolü - Oda
@@ -74,6 +127,80 @@ public interface ReservationRepository extends JpaRepository<Reservation, Intege
                                    @Param("timeSlotId") Integer timeSlotId);
     
     // Tüm bekleyen rezervasyonları getir (Admin için)
+    @EntityGraph(attributePaths = {"user", "room", "equipment", "timeSlot"})
     @Query("SELECT r FROM Reservation r WHERE r.status = 'BEKLENIYOR' ORDER BY r.reservationDate, r.timeSlot.startTime")
     List<Reservation> findPendingReservations();
+
+    // Admin paneli için - durum bazında rezervasyon sayıları [status, count]
+    @Query("SELECT r.status, COUNT(r) FROM Reservation r GROUP BY r.status")
+    List<Object[]> countByStatus();
+
+    // Doluluk indeksi için - verilen tarihten itibaren aktif rezervasyonların slot bilgileri
+    @Query("SELECT r.reservationId AS reservationId, u.userId AS userId, rm.roomId AS roomId, " +
+           "e.equipmentId AS equipmentId, ts.timeSlotId AS timeSlotId, " +
+           "r.reservationDate AS reservationDate, r.status AS status " +
+           "FROM Reservation r JOIN r.user u JOIN r.timeSlot ts " +
+           "LEFT JOIN r.room rm LEFT JOIN r.equipment e " +
+           "WHERE r.reservationDate >= :fromDate " +
+           "AND (r.status = 'ONAYLANDI' OR r.status = 'BEKLENIYOR')")
+    List<ReservationSlotView> findActiveSlotsFrom(@Param("fromDate") LocalDate fromDate);
+
+    // Müsaitlik matrisi için - tarih aralığındaki onaylı rezervasyonların oda/ekipman slotları
+    // ReservationSlotView'ın tüm alanları dolu gelir; kullanıcı ID'si yabancı anahtardan okunur, users'a join yok
+    @Query("SELECT r.reservationId AS reservationId, r.user.userId AS userId, rm.roomId AS roomId, " +
+           "e.equipmentId AS equipmentId, ts.timeSlotId AS timeSlotId, " +
+           "r.reservationDate AS reservationDate, r.status AS status " +
+           "FROM Reservation r JOIN r.timeSlot ts " +
+           "LEFT JOIN r.room rm LEFT JOIN r.equipment e " +
+           "WHERE r.reservationDate BETWEEN :fromDate AND :toDate " +
+           "AND r.status = 'ONAYLANDI'")
+    List<ReservationSlotView> findConfirmedSlotsBetween(@Param("fromDate") LocalDate fromDate,
+                                                        @Param("toDate") LocalDate toDate);
+
+    // Rezervasyon oluşturma ön kontrolü - tüm kontroller tek veritabanı gidiş-dönüşünde
+    // checkConflicts false ise çakışma alt sorguları çalıştırılmaz (doluluk indeksi cevaplar)
+    // countActive false ise aktif rezervasyon sayılmaz (kota defteri cevaplar)
+    @Query(value = "WITH active AS (" +
+           "  SELECT COUNT(*) AS cnt FROM reservations r " +
+           "  JOIN time_slots ts ON ts.time_slot_id = r.time_slot_id " +
+           "  WHERE :countActive AND r.user_id = :userId AND r.status IN ('ONAYLANDI', 'BEKLENIYOR') " +
+           "  AND r.reservation_date >= :today AND (r.reservation_date > :today OR " +
+           "       (r.reservation_date = :today AND ts.end_time > :currentTime))" +
+           ") " +
+           "SELECT u.user_id IS NOT NULL AS \"userExists\", u.name AS \"userName\", " +
+           "u.email AS \"userEmail\", u.role AS \"userRole\", " +
+           "s.time_slot_id IS NOT NULL AS \"timeSlotExists\", " +
+           "s.start_time AS \"slotStartTime\", s.end_time AS \"slotEndTime\", " +
+           "rm.room_id IS NOT NULL AS \"roomExists\", rm.name AS \"roomName\", " +
+           "rm.capacity AS \"roomCapacity\", rm.status AS \"roomStatus\", " +
+           "eq.equipment_id IS NOT NULL AS \"equipmentExists\", eq.name AS \"equipmentName\", " +
+           "eq.type AS \"equipmentType\", eq.status AS \"equipmentStatus\", " +
+           "CASE WHEN :checkConflicts THEN EXISTS (SELECT 1 FROM reservations c " +
+           "  WHERE c.room_id = :roomId AND c.reservation_date = :date " +
+           "  AND c.time_slot_id = :timeSlotId AND c.status = 'ONAYLANDI') " +
+           "ELSE FALSE END AS \"roomConflict\", " +
+           "CASE WHEN :checkConflicts THEN EXISTS (SELECT 1 FROM reservations c " +
+           "  WHERE c.equipment_id = :equipmentId AND c.reservation_date = :date " +
+           "  AND c.time_slot_id = :timeSlotId AND c.status = 'ONAYLANDI') " +
+           "ELSE FALSE END AS \"equipmentConflict\", " +
+           "CASE WHEN :checkConflicts THEN EXISTS (SELECT 1 FROM reservations c " +
+           "  WHERE c.user_id = :userId AND c.reservation_date = :date " +
+           "  AND c.time_slot_id = :timeSlotId AND c.status IN ('ONAYLANDI', 'BEKLENIYOR')) " +
+           "ELSE FALSE END AS \"userConflict\", " +
+           "a.cnt AS \"activeCount\" " +
+           "FROM active a " +
+           "LEFT JOIN users u ON u.user_id = :userId " +
+           "LEFT JOIN time_slots s ON s.time_slot_id = :timeSlotId " +
+           "LEFT JOIN rooms rm ON rm.room_id = :roomId " +
+           "LEFT JOIN equipment eq ON eq.equipment_id = :equipmentId",
+           nativeQuery = true)
+    BookingPreflightView preflightBooking(@Param("userId") Integer userId,
+                                          @Param("roomId") Integer roomId,
+                                          @Param("equipmentId") Integer equipmentId,
+                                          @Param("timeSlotId") Integer timeSlotId,
+                                          @Param("date") LocalDate date,
+                                          @Param("today") LocalDate today,
+                                          @Param("currentTime") java.time.LocalTime currentTime,
+                                          @Param("checkConflicts") boolean checkConflicts,
+                                          @Param("countActive") boolean countActive);
 }
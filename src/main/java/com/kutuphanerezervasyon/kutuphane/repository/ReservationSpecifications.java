@@ -0,0 +1,56 @@
+package com.kutuphanerezervasyon.kutuphane.repository;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+import com.kutuphanerezervasyon.kutuphane.entity.Reservation;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ Rezervasyon sorgu filtreleri
+ Sadece verilen filtreler WHERE'e eklenir, böylece sorgu indeksleri kullanabilir
+ */
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    /*
+     Filtreler + keyset koşulu: (reservation_date, reservation_id) azalan sırada cursor'dan sonrası
+     afterDate null ise ilk sayfa
+     */
+    public static Specification<Reservation> matching(ReservationQuery query, LocalDate afterDate, Integer afterId) {
+        return (root, criteriaQuery, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (query.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("reservationDate"), query.getFromDate()));
+            }
+            if (query.getToDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("reservationDate"), query.getToDate()));
+            }
+            if (query.getStatus() != null && !query.getStatus().isEmpty()) {
+                predicates.add(root.get("status").in(query.getStatus()));
+            }
+            if (query.getRoomId() != null) {
+                predicates.add(cb.equal(root.get("room").get("roomId"), query.getRoomId()));
+            }
+            if (query.getEquipmentId() != null) {
+                predicates.add(cb.equal(root.get("equipment").get("equipmentId"), query.getEquipmentId()));
+            }
+            if (query.getUserId() != null) {
+                predicates.add(cb.equal(root.get("user").get("userId"), query.getUserId()));
+            }
+            if (afterDate != null) {
+                // date <= d ek koşulu indeks aralık taramasını sağlar
+                predicates.add(cb.lessThanOrEqualTo(root.get("reservationDate"), afterDate));
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("reservationDate"), afterDate),
+                        cb.lessThan(root.get("reservationId"), afterId)));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -2,8 +2,12 @@ package com.kutuphanerezervasyon.kutuphane.repository;
 
 import com.kutuphanerezervasyon.kutuphane.entity.Room;
 import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,12 +17,22 @@ import java.util.List;
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Integer> {
     
+    // Referans verisi - sonuç ID'leri sorgu önbelleğinde, nesneler ikinci seviye önbellekte tutulur
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll();
+
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Room> findAll(Sort sort);
+    
     List<Room> findByStatus(RoomStatus status);
     
     List<Room> findByCapacityGreaterThanEqual(Integer capacity);
     
-    @Query("SELECT r FROM Room r WHERE r.name LIKE %:keyword%")
-    List<Room> searchByName(String keyword);
+    // Admin paneli için - durum bazında oda sayıları [status, count]
+    @Query("SELECT r.status, COUNT(r) FROM Room r GROUP BY r.status")
+    List<Object[]> countByStatus();
     
     // Belirli tarih ve zaman diliminde müsait odaları bul
     @Query("SELECT r FROM Room r WHERE r.roomId NOT IN " +
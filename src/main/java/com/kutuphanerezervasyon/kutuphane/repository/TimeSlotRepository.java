@@ -1,22 +1,24 @@
 package com.kutuphanerezervasyon.kutuphane.repository;
 
 import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalTime;
 import java.util.List;
-import java.util.Optional;
 
+/*
+ Zaman dilimi listeleme ve aralık sorguları bellekteki TimeSlotCatalog üzerinden yapılır
+ Müsaitlik matrisi dilimleri rezervasyonlarla aynı transaction'da okur, bu yüzden sorgu burada kalır
+ */
 @Repository
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, Integer> {
-    
-    Optional<TimeSlot> findByStartTimeAndEndTime(LocalTime startTime, LocalTime endTime);
-    
+
+    // Sorgu önbelleğinde tutulur, time_slots tablosu değişince Hibernate geçersiz kılar
     @Query("SELECT ts FROM TimeSlot ts ORDER BY ts.startTime")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<TimeSlot> findAllOrderByStartTime();
-    
-    @Query("SELECT ts FROM TimeSlot ts WHERE ts.startTime >= :startTime AND ts.endTime <= :endTime")
-    List<TimeSlot> findTimeSlotsInRange(LocalTime startTime, LocalTime endTime);
 }
@@ -18,6 +18,7 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     
     List<User> findByRole(UserRole role);
     
-    @Query("SELECT u FROM User u WHERE u.name LIKE %:keyword% OR u.email LIKE %:keyword%")
-    List<User> searchUsers(String keyword);
+    // Admin paneli için - rol bazında kullanıcı sayıları [role, count]
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countByRole();
 }
@@ -0,0 +1,255 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/*
+ Kullanıcı, oda ve ekipman seçicileri için bellek içi önek (prefix) indeksi
+ Her kayıt için katlanmış (SearchService.fold) isim, isimdeki her kelimeden başlayan parça
+ ve kullanıcılarda email anahtar olarak sıralı bir kümede (ConcurrentSkipListSet) tutulur;
+ önek araması ilk eşleşen terimden başlayan kısa bir taramadır
+ Tuşa her basışta veritabanına gidilmez. İndeks sadece commit edilmiş satırları içerir: açılışta yüklenir,
+ servislerdeki yazmalar commit'ten sonra tek tek (kaydın kendi terimleri) uygulanır ve servis dışından yapılan
+ değişiklikler için belirli aralıklarla zamanlayıcı thread'inde yeniden kurulur
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AutocompleteIndex implements SmartInitializingSingleton {
+
+    public enum Kind {
+        USERS("SELECT user_id AS id, name AS label, email AS detail FROM users"),
+        ROOMS("SELECT room_id AS id, name AS label, NULL AS detail FROM rooms"),
+        EQUIPMENT("SELECT equipment_id AS id, name AS label, type AS detail FROM equipment");
+
+        private final String select;
+
+        Kind(String select) {
+            this.select = select;
+        }
+    }
+
+    private static final RowMapper<Entry> ENTRY_MAPPER = (rs, rowNum) -> new Entry(
+            rs.getInt("id"), rs.getString("label"), rs.getString("detail"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Okumalar kilitsiz; yükleme başarısız olan türde indeks yoktur ve arama boş döner
+    private final Map<Kind, Index> indexes = new ConcurrentHashMap<>();
+
+    // Yeniden kurulan türe yükleme sürerken gelen değişiklikler, yeni indekse tekrar uygulanmak üzere
+    private final Map<Kind, Queue<Change>> pendingChanges = new ConcurrentHashMap<>();
+
+    @Value("${app.autocomplete.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${app.autocomplete.max-limit:50}")
+    private int maxLimit;
+
+    private record Entry(Integer id, String label, String detail) {
+
+        List<String> keys(Kind kind) {
+            List<String> keys = new ArrayList<>();
+            String name = label != null ? normalize(label) : "";
+            if (!name.isEmpty()) {
+                keys.add(name);
+                // "sukru calisma odasi" -> "calisma odasi", "odasi"
+                for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                    keys.add(name.substring(i + 1));
+                }
+            }
+            if (kind == Kind.USERS && detail != null) {
+                keys.add(normalize(detail));
+            }
+            return keys;
+        }
+
+        AutocompleteItem toItem() {
+            return new AutocompleteItem(id, label, detail);
+        }
+    }
+
+    private record Term(String key, Integer id) {
+    }
+
+    private static final Comparator<Term> TERM_ORDER =
+            Comparator.comparing(Term::key).thenComparing(Term::id);
+
+    private record Change(Integer id, Entry entry) {
+    }
+
+    /*
+     terms anahtara göre sıralı, aynı kaydın birden fazla terimi olabilir
+     Bir kaydın değişikliği sadece o kaydın terimlerine dokunur (O(terim * log n)), dizinin kopyası alınmaz
+     */
+    private record Index(Kind kind, ConcurrentSkipListSet<Term> terms, Map<Integer, Entry> entries) {
+
+        Index(Kind kind) {
+            this(kind, new ConcurrentSkipListSet<>(TERM_ORDER), new ConcurrentHashMap<>());
+        }
+
+        // Aynı kaydın değişiklikleri compute ile sıraya girer; okuyucu arada eşleşen kaydı kısa süre göremeyebilir
+        void apply(Change change) {
+            entries.compute(change.id(), (id, old) -> {
+                if (old != null) {
+                    old.keys(kind).forEach(key -> terms.remove(new Term(key, id)));
+                }
+                if (change.entry() != null) {
+                    change.entry().keys(kind).forEach(key -> terms.add(new Term(key, id)));
+                }
+                return change.entry();
+            });
+        }
+    }
+
+    /*
+     Anahtar sırasına göre öneki taşıyan ilk limit kadar farklı kayıt
+     Tarama en fazla limit kayıt bulunana kadar sürer, eşleşen toplam kayıt sayısından bağımsızdır
+     */
+    public List<AutocompleteItem> complete(Kind kind, String prefix, Integer limit) {
+        String query = prefix == null ? "" : normalize(prefix);
+        Index index = indexes.get(kind);
+        if (query.isEmpty() || index == null) {
+            return List.of();
+        }
+        int max = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+
+        List<AutocompleteItem> result = new ArrayList<>(max);
+        Set<Integer> seen = new HashSet<>();
+        for (Term term : index.terms().tailSet(new Term(query, Integer.MIN_VALUE))) {
+            if (result.size() >= max || !term.key().startsWith(query)) {
+                break;
+            }
+            Entry entry = index.entries().get(term.id());
+            if (entry != null && seen.add(term.id())) {
+                result.add(entry.toItem());
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Kind kind : Kind.values()) {
+            Index index = indexes.get(kind);
+            Map<String, Object> kindStats = new LinkedHashMap<>();
+            kindStats.put("loaded", index != null);
+            kindStats.put("entries", index != null ? index.entries().size() : 0);
+            kindStats.put("terms", index != null ? index.terms().size() : 0);
+            stats.put(kind.name().toLowerCase(), kindStats);
+        }
+        return stats;
+    }
+
+    // ========== GÜNCELLEMELER ==========
+
+    /*
+     Değişiklik transaction commit edildikten sonra uygulanır; rollback'te hiç uygulanmaz
+     Commit'e kadar aynı transaction'daki aramalar da commit edilmiş hali görür
+     */
+    public void onSaved(Kind kind, Integer id, String label, String detail) {
+        afterCommit(kind, new Change(id, new Entry(id, label, detail)));
+    }
+
+    public void onDeleted(Kind kind, Integer id) {
+        afterCommit(kind, new Change(id, null));
+    }
+
+    // Açılışta, henüz istek gelmeden; veriler hazırlandıktan sonra bir kez daha ve belirli aralıklarla tekrar
+    @Override
+    public void afterSingletonsInstantiated() {
+        reloadAll();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.autocomplete.reload-interval-ms:600000}",
+            fixedDelayString = "${app.autocomplete.reload-interval-ms:600000}")
+    public void onReloadTick() {
+        reloadAll();
+    }
+
+    public void reloadAll() {
+        for (Kind kind : Kind.values()) {
+            try {
+                reload(kind);
+            } catch (DataAccessException e) {
+                log.warn("Otomatik tamamlama indeksi yüklenemedi: {}", kind, e);
+            }
+        }
+    }
+
+    /*
+     Çağıranın transaction'ı dışında çalıştırılmalıdır (açılış, zamanlayıcı); commit edilmiş satırları okur
+     Yeni indeks kenarda kurulur, yazmalar bu sırada eski indekse uygulanmaya devam eder ve kuyruğa da alınır;
+     yeni indeks yerine konduktan sonra kuyruktakiler ona da uygulanır
+     */
+    public synchronized void reload(Kind kind) {
+        Queue<Change> pending = new ConcurrentLinkedQueue<>();
+        pendingChanges.put(kind, pending);
+        try {
+            Index index = new Index(kind);
+            jdbcTemplate.query(kind.select, ENTRY_MAPPER)
+                    .forEach(entry -> index.apply(new Change(entry.id(), entry)));
+            indexes.put(kind, index);
+            for (Change change = pending.poll(); change != null; change = pending.poll()) {
+                index.apply(change);
+            }
+            log.debug("Otomatik tamamlama indeksi yüklendi: {} ({} kayıt)", kind, index.entries().size());
+        } finally {
+            pendingChanges.remove(kind);
+        }
+    }
+
+    private void afterCommit(Kind kind, Change change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(kind, change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(kind, change);
+            }
+        });
+    }
+
+    // Önce kuyruğa, sonra indekse: kuyruk boşaltıldıktan sonra gelen değişiklik yeni indeksi bulur
+    private void apply(Kind kind, Change change) {
+        Queue<Change> pending = pendingChanges.get(kind);
+        if (pending != null) {
+            pending.add(change);
+        }
+        Index index = indexes.get(kind);
+        if (index != null) {
+            index.apply(change);
+        }
+    }
+
+    private static String normalize(String text) {
+        return SearchService.fold(text.trim()).replaceAll("\\s+", " ");
+    }
+}
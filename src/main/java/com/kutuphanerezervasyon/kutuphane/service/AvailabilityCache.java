@@ -0,0 +1,116 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+ Müsait oda/ekipman listeleri için (tarih, zaman dilimi) anahtarlı Caffeine önbelleği
+ Kayıtlar sadece o anahtarı etkileyen onay/iptal/silme veya kaynak değişikliğinde silinir, TTL üst sınırdır
+ refresh süresi dolan kayıt eski değeriyle hemen döner ve arka planda yeniden yüklenir
+ */
+@Slf4j
+@Component
+public class AvailabilityCache {
+
+    public record SlotKey(LocalDate date, Integer timeSlotId) {
+    }
+
+    @Value("${app.reservation.availability-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservation.availability-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.reservation.availability-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // 0 ise arka planda yenileme yapılmaz, kayıt TTL dolana kadar aynen döner
+    @Value("${app.reservation.availability-cache.refresh-after-seconds:30}")
+    private long refreshAfterSeconds;
+
+    private final Map<String, LoadingCache<SlotKey, ?>> caches = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Servisler kendi yükleyicileriyle isimli bir önbellek oluşturur
+    public <V> LoadingCache<SlotKey, V> create(String name, Function<SlotKey, V> loader) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats();
+        if (refreshAfterSeconds > 0 && refreshAfterSeconds < ttlSeconds) {
+            builder.refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds));
+        }
+        LoadingCache<SlotKey, V> cache = builder.build(loader::apply);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    // Onaylı rezervasyon değiştiğinde - sadece o gün ve zaman dilimi
+    public void evict(LocalDate date, Integer timeSlotId) {
+        SlotKey key = new SlotKey(date, timeSlotId);
+        runNowAndAfterTransaction(() -> caches.values().forEach(cache -> cache.invalidate(key)));
+    }
+
+    // Oda/ekipman eklendiğinde, durumu değiştiğinde veya silindiğinde ilgili önbelleğin tamamı
+    public void evictAll(String name) {
+        LoadingCache<SlotKey, ?> cache = caches.get(name);
+        if (cache != null) {
+            runNowAndAfterTransaction(cache::invalidateAll);
+        }
+    }
+
+    /*
+     Hemen silinir ki aynı transaction'daki okumalar eski değeri görmesin
+     Commit/rollback sonrası tekrar silinir: arada başka bir okuma commit edilmemiş
+     veya eski veriyi yüklemiş olabilir
+     */
+    private void runNowAndAfterTransaction(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("refreshAfterSeconds", refreshAfterSeconds);
+        caches.forEach((name, cache) -> {
+            CacheStats cacheStats = cache.stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", cache.estimatedSize());
+            entry.put("hitCount", cacheStats.hitCount());
+            entry.put("missCount", cacheStats.missCount());
+            entry.put("hitRate", cacheStats.hitRate());
+            entry.put("loadCount", cacheStats.loadCount());
+            entry.put("loadFailureCount", cacheStats.loadFailureCount());
+            entry.put("averageLoadMillis", cacheStats.averageLoadPenalty() / 1_000_000.0);
+            entry.put("evictionCount", cacheStats.evictionCount());
+            stats.put(name, entry);
+        });
+        return stats;
+    }
+}
@@ -0,0 +1,263 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent.Resource;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
+import com.kutuphanerezervasyon.kutuphane.entity.Reservation;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import com.kutuphanerezervasyon.kutuphane.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Canlı müsaitlik değişiklikleri için Server-Sent Events yayını
+ Olaylar transaction commit edildikten sonra yayınlanır, geri alınan değişiklik istemciye gitmez
+ Boşta bekleyen bağlantı thread tutmaz (servlet async); gönderim her abone için sıralı bir kuyruktan
+ sanal thread'ler üzerinde yapılır, yavaş bir istemci yayını yapan transaction'ı veya diğer aboneleri bekletmez
+ Kuyruğu dolan (okumayan) abone düşürülür, EventSource yeniden bağlanır
+ */
+@Slf4j
+@Component
+public class AvailabilityEventStream {
+
+    private static final String EVENT_NAME = "availability";
+
+    @Value("${app.availability.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${app.availability.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.availability.stream.max-pending-events:1000}")
+    private int maxPendingEvents;
+
+    @Value("${app.availability.stream.retry-after-seconds:10}")
+    private long retryAfterSeconds;
+
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // SSE id alanı: istemci kaçırdığı olayları sıra numarasındaki boşluktan anlayabilir
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Boş alanlar filtre uygulanmadığı anlamına gelir
+    private record Filter(LocalDate date, Resource resource, Integer resourceId) {
+
+        boolean matches(AvailabilityEvent event) {
+            // Durum değişikliği tarihsizdir, o kaynağın tüm günlerini etkiler
+            return (date == null || event.getDate() == null || date.equals(event.getDate()))
+                    && (resource == null || resource == event.getResource())
+                    && (resourceId == null || resourceId.equals(event.getResourceId()));
+        }
+    }
+
+    private record Message(long id, AvailabilityEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final Queue<Message> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Filter filter) {
+            this.emitter = emitter;
+            this.filter = filter;
+        }
+
+        void offer(Message message) {
+            if (pendingCount.incrementAndGet() > maxPendingEvents) {
+                dropped.incrementAndGet();
+                close();
+                return;
+            }
+            pending.add(message);
+            schedule();
+        }
+
+        // Aynı anda tek bir sanal thread gönderir, böylece olaylar sırayla yazılır
+        private void schedule() {
+            if (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Message message;
+                while ((message = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(message.id()))
+                            .name(EVENT_NAME)
+                            .data(message.event(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Bayrak bırakılırken eklenen olay kaçmasın
+            schedule();
+        }
+
+        void heartbeat() {
+            if (draining.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+
+    public SseEmitter subscribe(LocalDate date, Resource resource, Integer resourceId) {
+        return subscribe(new SseEmitter(timeoutMillis), date, resource, resourceId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, LocalDate date, Resource resource, Integer resourceId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceBusyException("Canlı müsaitlik akışı dolu, lütfen biraz sonra tekrar deneyin",
+                    retryAfterSeconds);
+        }
+        Subscriber subscriber = new Subscriber(emitter, new Filter(date, resource, resourceId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    // ========== YAYIN ==========
+
+    /*
+     Rezervasyonun oda ve ekipmanı için o gün/dilimdeki yeni durum (previousStatus yeni kayıtta null)
+     Slotu sadece onaylı rezervasyon doldurur: onaylanınca BOOKED, onaylıyken iptal edilince AVAILABLE
+     Yeni bekleyen rezervasyon PENDING olarak bildirilir; bekleyenin iptali slotun durumunu değiştirmez
+     */
+    public void publish(Reservation reservation, ReservationStatus previousStatus) {
+        publish(reservation, previousStatus, reservation.getStatus());
+    }
+
+    public void publish(ReservationSlotView row, ReservationStatus previousStatus) {
+        publish(row.getRoomId(), row.getEquipmentId(), row.getReservationDate(), row.getTimeSlotId(),
+                previousStatus, row.getStatus());
+    }
+
+    // Silinen onaylı rezervasyon slotu boşaltır
+    public void publishRemoved(Reservation reservation) {
+        publish(reservation, reservation.getStatus(), null);
+    }
+
+    private void publish(Reservation reservation, ReservationStatus previousStatus, ReservationStatus status) {
+        publish(reservation.getRoom() != null ? reservation.getRoom().getRoomId() : null,
+                reservation.getEquipment() != null ? reservation.getEquipment().getEquipmentId() : null,
+                reservation.getReservationDate(), reservation.getTimeSlot().getTimeSlotId(), previousStatus, status);
+    }
+
+    private void publish(Integer roomId, Integer equipmentId, LocalDate date, Integer timeSlotId,
+                         ReservationStatus previousStatus, ReservationStatus status) {
+        String state;
+        if (status == ReservationStatus.ONAYLANDI && previousStatus != ReservationStatus.ONAYLANDI) {
+            state = "BOOKED";
+        } else if (previousStatus == ReservationStatus.ONAYLANDI && status != ReservationStatus.ONAYLANDI) {
+            state = "AVAILABLE";
+        } else if (previousStatus == null && status == ReservationStatus.BEKLENIYOR) {
+            state = "PENDING";
+        } else {
+            return;
+        }
+        if (roomId != null) {
+            publish(new AvailabilityEvent(Resource.ROOM, roomId, date, timeSlotId, state));
+        }
+        if (equipmentId != null) {
+            publish(new AvailabilityEvent(Resource.EQUIPMENT, equipmentId, date, timeSlotId, state));
+        }
+    }
+
+    public void publishStatus(Resource resource, Integer resourceId, Enum<?> status) {
+        publish(new AvailabilityEvent(resource, resourceId, null, null, status.name()));
+    }
+
+    // Transaction içindeyse olay commit sonrasına ertelenir; abone yoksa hiçbir şey yapılmaz
+    public void publish(AvailabilityEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(event);
+            }
+        });
+    }
+
+    private void dispatch(AvailabilityEvent event) {
+        Message message = new Message(sequence.incrementAndGet(), event);
+        published.incrementAndGet();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matches(event)) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    // Kopmuş bağlantılar ancak yazmaya çalışınca fark edilir; ara sunucular da boş bağlantıyı kapatmasın
+    @Scheduled(fixedDelayString = "${app.availability.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            sender.execute(subscriber::heartbeat);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("maxSubscribers", maxSubscribers);
+        stats.put("publishedEvents", published.get());
+        stats.put("droppedSubscribers", dropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+}
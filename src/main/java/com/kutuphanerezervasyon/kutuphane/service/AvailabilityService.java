@@ -0,0 +1,138 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityMatrix;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityMatrix.ResourceAvailability;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
+import com.kutuphanerezervasyon.kutuphane.dto.TimeSlotDTO;
+import com.kutuphanerezervasyon.kutuphane.entity.Equipment;
+import com.kutuphanerezervasyon.kutuphane.entity.Room;
+import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
+import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.repository.EquipmentRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.ReservationRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.RoomRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ Takvim görünümü için toplu müsaitlik hesabı
+ Gün × zaman dilimi başına ayrı /available çağrısı yerine aralıktaki onaylı rezervasyonlar tek sorguyla okunur
+ Her kaynak için bit numarası gün * slotSayısı + slotSırası olan bir long[] bitset doldurulur
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AvailabilityService {
+
+    private final ReservationRepository reservationRepository;
+    private final RoomRepository roomRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final TimeSlotRepository timeSlotRepository;
+
+    @Value("${app.reservation.availability.max-days:31}")
+    private int maxDays;
+
+    public AvailabilityMatrix getMatrix(LocalDate fromDate, LocalDate toDate) {
+        if (toDate == null) {
+            toDate = fromDate;
+        }
+        if (toDate.isBefore(fromDate)) {
+            throw new InvalidOperationException("Bitiş tarihi başlangıç tarihinden önce olamaz");
+        }
+        long dayCount = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        if (dayCount > maxDays) {
+            throw new InvalidOperationException("Müsaitlik en fazla " + maxDays + " gün için sorgulanabilir");
+        }
+        int days = (int) dayCount;
+
+        List<TimeSlot> timeSlots = timeSlotRepository.findAllOrderByStartTime();
+        List<Room> rooms = roomRepository.findAll(Sort.by("roomId"));
+        List<Equipment> equipmentList = equipmentRepository.findAll(Sort.by("equipmentId"));
+
+        int slotCount = timeSlots.size();
+        Map<Integer, Integer> slotIndex = new HashMap<>();
+        for (int i = 0; i < slotCount; i++) {
+            slotIndex.put(timeSlots.get(i).getTimeSlotId(), i);
+        }
+
+        // Dolu slotlar: kaynak ID -> bitset
+        Map<Integer, long[]> busyRooms = new HashMap<>();
+        Map<Integer, long[]> busyEquipment = new HashMap<>();
+        int words = (days * slotCount + 63) >>> 6;
+        for (ReservationSlotView row : reservationRepository.findConfirmedSlotsBetween(fromDate, toDate)) {
+            Integer slot = slotIndex.get(row.getTimeSlotId());
+            if (slot == null) {
+                continue;
+            }
+            int bit = (int) ChronoUnit.DAYS.between(fromDate, row.getReservationDate()) * slotCount + slot;
+            if (row.getRoomId() != null) {
+                set(busyRooms.computeIfAbsent(row.getRoomId(), id -> new long[words]), bit);
+            }
+            if (row.getEquipmentId() != null) {
+                set(busyEquipment.computeIfAbsent(row.getEquipmentId(), id -> new long[words]), bit);
+            }
+        }
+
+        List<LocalDate> dates = new ArrayList<>(days);
+        for (int d = 0; d < days; d++) {
+            dates.add(fromDate.plusDays(d));
+        }
+
+        // Rezervasyon oluşturma ile aynı kural: sadece EMPTY oda ve AVAILABLE ekipman rezerve edilebilir
+        List<ResourceAvailability> roomRows = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            roomRows.add(new ResourceAvailability(room.getRoomId(), room.getName(), name(room.getStatus()),
+                    render(busyRooms.get(room.getRoomId()), room.getStatus() == RoomStatus.EMPTY, days, slotCount)));
+        }
+        List<ResourceAvailability> equipmentRows = new ArrayList<>(equipmentList.size());
+        for (Equipment equipment : equipmentList) {
+            equipmentRows.add(new ResourceAvailability(equipment.getEquipmentId(), equipment.getName(),
+                    name(equipment.getStatus()),
+                    render(busyEquipment.get(equipment.getEquipmentId()),
+                            equipment.getStatus() == EquipmentStatus.AVAILABLE, days, slotCount)));
+        }
+
+        List<TimeSlotDTO> slotDTOs = timeSlots.stream()
+                .map(ts -> new TimeSlotDTO(ts.getTimeSlotId(), ts.getStartTime(), ts.getEndTime()))
+                .toList();
+        return new AvailabilityMatrix(fromDate, toDate, dates, slotDTOs, roomRows, equipmentRows);
+    }
+
+    private static void set(long[] bits, int bit) {
+        bits[bit >>> 6] |= 1L << bit;
+    }
+
+    private static boolean isSet(long[] bits, int bit) {
+        return bits != null && (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    // Bitset'i gün başına bir karakter dizisine çevirir: '1' müsait, '0' dolu/kapalı
+    private static List<String> render(long[] busy, boolean bookable, int days, int slotCount) {
+        List<String> result = new ArrayList<>(days);
+        char[] row = new char[slotCount];
+        for (int d = 0; d < days; d++) {
+            for (int s = 0; s < slotCount; s++) {
+                row[s] = bookable && !isSet(busy, d * slotCount + s) ? '1' : '0';
+            }
+            result.add(new String(row));
+        }
+        return result;
+    }
+
+    private static String name(Enum<?> status) {
+        return status != null ? status.name() : null;
+    }
+}
@@ -0,0 +1,216 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BookingTicketDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.enums.BookingTicketStatus;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.exception.MaxReservationLimitException;
+import com.kutuphanerezervasyon.kutuphane.exception.ReservationConflictException;
+import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
+import com.kutuphanerezervasyon.kutuphane.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Rezervasyon açılış anındaki yığılma için kabul kuyruğu
+ İstekler sınırlı bir kuyruğa alınır ve sabit bir işçi havuzu tarafından işlenir
+ İşçi sayısı bağlantı havuzundan küçük tutulur; okuma istekleri, süpürücüler ve kilit bağlantıları için
+ reserved-connections kadar bağlantı boşta kalır
+ İstemci bilet alır, sonucu bilet üzerinden sorgular (long-poll destekli)
+ Kuyruk doluysa ServiceBusyException ile 503 + Retry-After döner
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAdmissionQueue {
+
+    private final ReservationService reservationService;
+
+    @Value("${app.reservation.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.reservation.admission.queue-capacity:500}")
+    private int queueCapacity;
+
+    // 0: otomatik (havuz boyutu - ayrılan bağlantılar); daha büyük bir değer bu sınıra indirilir
+    @Value("${app.reservation.admission.workers:0}")
+    private int workers;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${app.reservation.admission.reserved-connections:2}")
+    private int reservedConnections;
+
+    @Value("${app.reservation.admission.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    @Value("${app.reservation.admission.max-wait-ms:25000}")
+    private long maxWaitMillis;
+
+    @Value("${app.reservation.admission.ticket-ttl-seconds:300}")
+    private long ticketTtlSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile BookingTicketStatus status = BookingTicketStatus.KUYRUKTA;
+        private volatile ReservationDTO reservation;
+        private volatile String error;
+        private volatile Integer httpStatus;
+        private volatile Instant completedAt;
+    }
+
+    @PostConstruct
+    void init() {
+        int configured = workers;
+        workers = workerCount(configured, connectionPoolSize, reservedConnections);
+        if (configured > workers) {
+            log.warn("Kabul kuyruğu işçi sayısı {} yerine {} olarak ayarlandı (bağlantı havuzu: {}, ayrılan: {})",
+                    configured, workers, connectionPoolSize, reservedConnections);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "booking-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BookingTicketDTO submit(ReservationRequest request) {
+        Ticket ticket = new Ticket();
+        tickets.put(ticket.id, ticket);
+        try {
+            executor.execute(() -> process(ticket, request));
+        } catch (RejectedExecutionException e) {
+            tickets.remove(ticket.id);
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("Rezervasyon kuyruğu dolu, lütfen biraz sonra tekrar deneyin",
+                    retryAfterSeconds);
+        }
+        accepted.incrementAndGet();
+        return toDTO(ticket);
+    }
+
+    /*
+     Biletin güncel durumunu döner
+     waitMillis > 0 ise bilet tamamlanana veya süre dolana kadar bekler, bekleme sunucu thread'ini tutmaz
+     */
+    public CompletableFuture<BookingTicketDTO> poll(String ticketId, long waitMillis) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Bilet bulunamadı: " + ticketId);
+        }
+        long wait = Math.min(Math.max(waitMillis, 0), maxWaitMillis);
+        if (wait == 0 || ticket.done.isDone()) {
+            return CompletableFuture.completedFuture(toDTO(ticket));
+        }
+        return ticket.done.copy()
+                .orTimeout(wait, TimeUnit.MILLISECONDS)
+                .handle((ignored, timeout) -> toDTO(ticket));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("workers", workers);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("queued", executor.getQueue().size());
+        stats.put("processing", executor.getActiveCount());
+        stats.put("accepted", accepted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("tickets", tickets.size());
+        return stats;
+    }
+
+    // Tamamlanmış ve süresi dolmuş biletleri temizler
+    @Scheduled(fixedDelayString = "${app.reservation.admission.cleanup-interval-ms:60000}")
+    public void removeExpiredTickets() {
+        Instant threshold = Instant.now().minusSeconds(ticketTtlSeconds);
+        tickets.values().removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(threshold));
+    }
+
+    private void process(Ticket ticket, ReservationRequest request) {
+        ticket.status = BookingTicketStatus.ISLENIYOR;
+        try {
+            ticket.reservation = reservationService.createReservation(request);
+            ticket.status = BookingTicketStatus.TAMAMLANDI;
+        } catch (RuntimeException e) {
+            ticket.error = e.getMessage();
+            ticket.httpStatus = statusOf(e).value();
+            ticket.status = BookingTicketStatus.HATA;
+            if (ticket.httpStatus == HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                log.error("Kuyruktaki rezervasyon isteği başarısız oldu: {}", request, e);
+            }
+        } finally {
+            ticket.completedAt = Instant.now();
+            ticket.done.complete(null);
+        }
+    }
+
+    // İşçiler havuzun tamamını tutarsa diğer istekler bağlantı beklerken zaman aşımına düşer
+    static int workerCount(int configured, int poolSize, int reserved) {
+        int limit = Math.max(1, poolSize - reserved);
+        return configured > 0 ? Math.min(configured, limit) : limit;
+    }
+
+    // GlobalExceptionHandler ile aynı eşleme
+    private static HttpStatus statusOf(RuntimeException e) {
+        if (e instanceof ResourceNotFoundException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof ReservationConflictException) {
+            return HttpStatus.CONFLICT;
+        }
+        if (e instanceof MaxReservationLimitException || e instanceof InvalidOperationException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        if (e instanceof ServiceBusyException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    private static BookingTicketDTO toDTO(Ticket ticket) {
+        return new BookingTicketDTO(ticket.id, ticket.status, ticket.reservation, ticket.error, ticket.httpStatus);
+    }
+}
@@ -0,0 +1,209 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.exception.ServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ Rezervasyon oluştururken (kaynak, tarih, zaman dilimi) bazında kilitleme
+ Kontrol-sonra-ekle akışında aynı slota gelen eşzamanlı isteklerin ikisinin de geçmesini engeller
+ local: tek sunucu için parçalı (striped) JVM kilitleri
+ advisory: çok sunuculu kurulum için PostgreSQL pg_advisory_xact_lock
+ none: kilitleme yapılmaz
+ Kilitler transaction bitene kadar tutulur, farklı kaynaklar birbirini beklemez
+ local modda kilit transaction açılmadan alınır: bekleyen istek havuzdan bağlantı tutmaz
+ Zaman aşımı slotun dolu olduğu anlamına gelmez, yoğunluktur: 503 + Retry-After ile tekrar denenmesi istenir
+ */
+@Component
+public class BookingLockManager {
+
+    public enum ResourceType {
+        ROOM, EQUIPMENT, USER
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.reservation.booking-lock.mode:local}")
+    private String mode;
+
+    @Value("${app.reservation.booking-lock.stripes:1024}")
+    private int stripeCount;
+
+    @Value("${app.reservation.booking-lock.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private ReentrantLock[] stripes;
+
+    public BookingLockManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void init() {
+        // Maske ile indeksleyebilmek için ikinin kuvvetine yuvarla
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Tek bir rezervasyon isteğinin dokunduğu tüm slotlar
+    public static List<Long> bookingKeys(Integer userId, Integer roomId, Integer equipmentId,
+                                         LocalDate date, Integer timeSlotId) {
+        List<Long> keys = new ArrayList<>();
+        keys.add(key(ResourceType.USER, userId, date, timeSlotId));
+        if (roomId != null) {
+            keys.add(key(ResourceType.ROOM, roomId, date, timeSlotId));
+        }
+        if (equipmentId != null) {
+            keys.add(key(ResourceType.EQUIPMENT, equipmentId, date, timeSlotId));
+        }
+        return keys;
+    }
+
+    /*
+     work'ü anahtarlar kilitliyken bir transaction içinde çalıştırır
+     Çağıranın transaction'ı yoksa local modda kilitler transaction'dan önce alınır ve commit/rollback ile tüm
+     transaction senkronizasyonları (doluluk indeksi, kota, önbellek) bittikten sonra bırakılır
+     advisory kilit transaction'a bağlı olduğu için transaction içinde alınır
+     Çağıranın transaction'ı varsa ona katılır, kilitler o transaction bitince bırakılır (lockAll)
+     */
+    public <T> T callWithLocks(List<Long> keys, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || keys.isEmpty() || !"local".equals(mode)) {
+            return transactionTemplate.execute(status -> {
+                lockAll(keys);
+                return work.get();
+            });
+        }
+        List<ReentrantLock> acquired = acquireStripes(keys);
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } finally {
+            releaseAll(acquired);
+        }
+    }
+
+    /*
+     Verilen anahtarları transaction sonuna kadar kilitler
+     Deadlock oluşmaması için kilitler her zaman sıralı alınır
+     */
+    public void lockAll(List<Long> keys) {
+        if (keys.isEmpty() || "none".equals(mode)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Rezervasyon kilidi sadece aktif bir transaction içinde alınabilir");
+        }
+        if ("advisory".equals(mode)) {
+            for (long key : new TreeSet<>(keys)) {
+                jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> { }, key);
+            }
+            return;
+        }
+
+        List<ReentrantLock> acquired = acquireStripes(keys);
+        TransactionSynchronizationManager.registerSynchronization(new ReleaseAfterCompletion(acquired));
+    }
+
+    private List<ReentrantLock> acquireStripes(List<Long> keys) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (long key : keys) {
+            indexes.add((int) key & (stripes.length - 1));
+        }
+        List<ReentrantLock> acquired = new ArrayList<>();
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new ServiceBusyException(
+                            "Bu kaynak için başka bir rezervasyon işlemi sürüyor, lütfen tekrar deneyin",
+                            retryAfterSeconds());
+                }
+                acquired.add(lock);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseAll(acquired);
+            throw new ServiceBusyException("Rezervasyon kilidi beklenirken işlem kesildi", retryAfterSeconds());
+        } catch (RuntimeException e) {
+            releaseAll(acquired);
+            throw e;
+        }
+        return acquired;
+    }
+
+    // Kilit bekleme süresi kadar, en az 1 saniye
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999));
+    }
+
+    /*
+     Kilitler diğer senkronizasyonların afterCompletion adımlarından (geri alınan kota, önbellek) sonra bırakılmalı
+     Aynı sıradaki senkronizasyonlar kayıt sırasıyla çalıştığından bırakma işi beforeCompletion'da en sona kaydedilir
+     */
+    private static final class ReleaseAfterCompletion implements TransactionSynchronization {
+
+        private final List<ReentrantLock> locks;
+        private boolean deferred;
+
+        ReleaseAfterCompletion(List<ReentrantLock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    releaseAll(locks);
+                }
+            });
+            deferred = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (!deferred) {
+                releaseAll(locks);
+            }
+        }
+    }
+
+    public static long key(ResourceType type, int resourceId, LocalDate date, int timeSlotId) {
+        long h = type.ordinal();
+        h = h * 1_000_003L + resourceId;
+        h = h * 1_000_003L + date.toEpochDay();
+        h = h * 1_000_003L + timeSlotId;
+        // murmur3 son karıştırma adımı - şerit dağılımını dengeler
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static void releaseAll(List<ReentrantLock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Oda, ekipman ve zaman dilimi listelerinin sürüm sayaçları (ETag için)
+ Sayaç ilgili servisteki her yazmada, transaction bittikten sonra artırılır; commit'ten önce artırılsaydı
+ arada gelen bir okuma eski listeyi yeni sürümle etiketleyebilirdi
+ ETag'e açılışta seçilen rastgele bir değer eklenir, yeniden başlatma sonrası eski etiketler eşleşmez
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Catalog {
+        ROOMS, EQUIPMENT, TIME_SLOTS
+    }
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+
+    public CatalogVersions() {
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+        }
+    }
+
+    public long version(Catalog catalog) {
+        return versions.get(catalog).get();
+    }
+
+    public String etag(Catalog catalog) {
+        return "\"" + catalog.name().toLowerCase() + "-" + epoch + "-" + version(catalog) + "\"";
+    }
+
+    // Rollback'te de artırılır: gereksiz bir 200 cevabı, eskimiş bir 304'ten iyidir
+    public void bump(Catalog catalog) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.get(catalog).incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                versions.get(catalog).incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ Admin paneli sayaçları
+ Her tablo için tek bir COUNT ... GROUP BY sorgusu çalışır, satırlar DTO'ya çevrilmez
+ Panel her açık sekmeden sürekli sorgulandığı için sonuç kısa bir süre (TTL) bellekte tutulur
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsService {
+
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final ReservationRepository reservationRepository;
+    private final TimeSlotRepository timeSlotRepository;
+
+    @Value("${app.admin.dashboard.cache-ttl-ms:10000}")
+    private long cacheTtlMillis;
+
+    private record CachedStats(Map<String, Object> stats, long expiresAt) {
+    }
+
+    private volatile CachedStats cached;
+
+    public Map<String, Object> getStats() {
+        CachedStats current = cached;
+        if (current != null && System.currentTimeMillis() < current.expiresAt()) {
+            return current.stats();
+        }
+        // Süre dolduğunda aynı anda gelen isteklerden sadece biri veritabanına gider
+        synchronized (this) {
+            current = cached;
+            if (current == null || System.currentTimeMillis() >= current.expiresAt()) {
+                current = new CachedStats(Collections.unmodifiableMap(load()),
+                        System.currentTimeMillis() + cacheTtlMillis);
+                cached = current;
+            }
+            return current.stats();
+        }
+    }
+
+    private Map<String, Object> load() {
+        List<Object[]> userRows = userRepository.countByRole();
+        List<Object[]> roomRows = roomRepository.countByStatus();
+        List<Object[]> equipmentRows = equipmentRepository.countByStatus();
+        List<Object[]> reservationRows = reservationRepository.countByStatus();
+
+        Map<UserRole, Long> users = group(userRows, UserRole.class);
+        Map<RoomStatus, Long> rooms = group(roomRows, RoomStatus.class);
+        Map<EquipmentStatus, Long> equipment = group(equipmentRows, EquipmentStatus.class);
+        Map<ReservationStatus, Long> reservations = group(reservationRows, ReservationStatus.class);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+
+        // Kullanıcı istatistikleri
+        long totalUsers = total(userRows);
+        long admins = users.getOrDefault(UserRole.ADMIN, 0L);
+        stats.put("totalUsers", totalUsers);
+        stats.put("totalAdmins", admins);
+        stats.put("totalRegularUsers", totalUsers - admins);
+
+        // Oda istatistikleri
+        stats.put("totalRooms", total(roomRows));
+        stats.put("emptyRooms", rooms.getOrDefault(RoomStatus.EMPTY, 0L));
+        stats.put("occupiedRooms", rooms.getOrDefault(RoomStatus.OCCUPIED, 0L));
+        stats.put("maintenanceRooms", rooms.getOrDefault(RoomStatus.MAINTENANCE, 0L));
+
+        // Ekipman istatistikleri
+        stats.put("totalEquipment", total(equipmentRows));
+        stats.put("availableEquipment", equipment.getOrDefault(EquipmentStatus.AVAILABLE, 0L));
+        stats.put("reservedEquipment", equipment.getOrDefault(EquipmentStatus.RESERVED, 0L));
+        stats.put("maintenanceEquipment", equipment.getOrDefault(EquipmentStatus.MAINTENANCE, 0L));
+
+        // Rezervasyon istatistikleri
+        stats.put("totalReservations", total(reservationRows));
+        stats.put("pendingReservations", reservations.getOrDefault(ReservationStatus.BEKLENIYOR, 0L));
+        stats.put("confirmedReservations", reservations.getOrDefault(ReservationStatus.ONAYLANDI, 0L));
+        stats.put("cancelledReservations", reservations.getOrDefault(ReservationStatus.IPTAL_EDILDI, 0L));
+        stats.put("expiredReservations", reservations.getOrDefault(ReservationStatus.SURESI_DOLDU, 0L));
+
+        // Zaman dilimi istatistikleri
+        stats.put("totalTimeSlots", timeSlotRepository.count());
+        return stats;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> group(List<Object[]> rows, Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put(type.cast(row[0]), (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+
+    // Toplamlar, durumu/rolü boş olan satırları da içerir
+    private static long total(List<Object[]> rows) {
+        return rows.stream().mapToLong(row -> (Long) row[1]).sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ Hibernate ikinci seviye önbellek ve sorgu önbelleği istatistikleri
+ Bölge bazında isabet/ıskalama sayıları admin panelinden izlenir
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntityCacheStatsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> getStats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        stats.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        stats.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        stats.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        stats.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        stats.put("queryCachePutCount", statistics.getQueryCachePutCount());
+        stats.put("prepareStatementCount", statistics.getPrepareStatementCount());
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hitCount", region.getHitCount());
+            entry.put("missCount", region.getMissCount());
+            entry.put("putCount", region.getPutCount());
+            entry.put("hitRate", hitRate(region.getHitCount(), region.getMissCount()));
+            regions.put(regionName, entry);
+        }
+        stats.put("regions", regions);
+        return stats;
+    }
+
+    // Veritabanı uygulama dışından değiştirildiğinde önbellek elle boşaltılabilir
+    public Map<String, Object> evictAll() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        log.info("Hibernate ikinci seviye önbellek ve sorgu önbelleği boşaltıldı");
+        return getStats();
+    }
+
+    private static double hitRate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
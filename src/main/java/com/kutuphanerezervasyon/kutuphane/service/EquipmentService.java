@@ -1,12 +1,21 @@
 package com.kutuphanerezervasyon.kutuphane.service;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent.Resource;
 import com.kutuphanerezervasyon.kutuphane.dto.EquipmentDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.entity.Equipment;
 import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
 import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
 import com.kutuphanerezervasyon.kutuphane.repository.EquipmentRepository;
+import com.kutuphanerezervasyon.kutuphane.service.AutocompleteIndex.Kind;
+import com.kutuphanerezervasyon.kutuphane.service.AvailabilityCache.SlotKey;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -22,7 +31,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class EquipmentService {
 
+    public static final String AVAILABLE_EQUIPMENT_CACHE = "availableEquipment";
+
     private final EquipmentRepository equipmentRepository;
+    private final AvailabilityCache availabilityCache;
+    private final SearchService searchService;
+    private final AutocompleteIndex autocompleteIndex;
+    private final CatalogVersions catalogVersions;
+    private final AvailabilityEventStream availabilityEvents;
+
+    private LoadingCache<SlotKey, List<EquipmentDTO>> availableEquipmentCache;
+
+    @PostConstruct
+    void initCache() {
+        availableEquipmentCache = availabilityCache.create(AVAILABLE_EQUIPMENT_CACHE,
+                key -> loadAvailableEquipment(key.date(), key.timeSlotId()));
+    }
 
     public EquipmentDTO createEquipment(EquipmentDTO equipmentDTO) {
         Equipment equipment = new Equipment();
@@ -31,6 +55,10 @@ public class EquipmentService {
         equipment.setStatus(equipmentDTO.getStatus() != null ? equipmentDTO.getStatus() : EquipmentStatus.AVAILABLE);
 
         Equipment savedEquipment = equipmentRepository.save(equipment);
+        availabilityCache.evictAll(AVAILABLE_EQUIPMENT_CACHE);
+        catalogVersions.bump(Catalog.EQUIPMENT);
+        autocompleteIndex.onSaved(Kind.EQUIPMENT, savedEquipment.getEquipmentId(), savedEquipment.getName(),
+                savedEquipment.getType());
         return convertToDTO(savedEquipment);
     }
 
@@ -63,17 +91,29 @@ public class EquipmentService {
     }
 
     @Transactional(readOnly = true)
-    public List<EquipmentDTO> searchEquipment(String keyword) {
-        return equipmentRepository.searchEquipment(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public SearchResult<EquipmentDTO> searchEquipment(String keyword) {
+        return searchService.searchEquipment(keyword);
+    }
+
+    // Bellekteki indeksten cevaplanır, transaction (ve bağlantı) açılmaz
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AutocompleteItem> autocompleteEquipment(String prefix, Integer limit) {
+        return autocompleteIndex.complete(Kind.EQUIPMENT, prefix, limit);
     }
 
     @Transactional(readOnly = true)
     public List<EquipmentDTO> getAvailableEquipment(LocalDate date, Integer timeSlotId) {
+        if (!availabilityCache.isEnabled()) {
+            return loadAvailableEquipment(date, timeSlotId);
+        }
+        return availableEquipmentCache.get(new SlotKey(date, timeSlotId));
+    }
+
+    // Önbellekteki liste paylaşıldığı için değiştirilemez döner
+    private List<EquipmentDTO> loadAvailableEquipment(LocalDate date, Integer timeSlotId) {
         return equipmentRepository.findAvailableEquipment(date, timeSlotId).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     public EquipmentDTO updateEquipment(Integer equipmentId, EquipmentDTO equipmentDTO) {
@@ -86,11 +126,19 @@ public class EquipmentService {
         if (equipmentDTO.getType() != null) {
             equipment.setType(equipmentDTO.getType());
         }
+        EquipmentStatus previousStatus = equipment.getStatus();
         if (equipmentDTO.getStatus() != null) {
             equipment.setStatus(equipmentDTO.getStatus());
         }
 
         Equipment updatedEquipment = equipmentRepository.save(equipment);
+        availabilityCache.evictAll(AVAILABLE_EQUIPMENT_CACHE);
+        catalogVersions.bump(Catalog.EQUIPMENT);
+        autocompleteIndex.onSaved(Kind.EQUIPMENT, equipmentId, updatedEquipment.getName(),
+                updatedEquipment.getType());
+        if (updatedEquipment.getStatus() != previousStatus) {
+            availabilityEvents.publishStatus(Resource.EQUIPMENT, equipmentId, updatedEquipment.getStatus());
+        }
         return convertToDTO(updatedEquipment);
     }
 
@@ -98,8 +146,14 @@ public class EquipmentService {
         Equipment equipment = equipmentRepository.findById(equipmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ekipman bulunamadı: " + equipmentId));
         
+        EquipmentStatus previousStatus = equipment.getStatus();
         equipment.setStatus(status);
         Equipment updatedEquipment = equipmentRepository.save(equipment);
+        availabilityCache.evictAll(AVAILABLE_EQUIPMENT_CACHE);
+        catalogVersions.bump(Catalog.EQUIPMENT);
+        if (status != previousStatus) {
+            availabilityEvents.publishStatus(Resource.EQUIPMENT, equipmentId, status);
+        }
         return convertToDTO(updatedEquipment);
     }
 
@@ -108,6 +162,9 @@ public class EquipmentService {
             throw new ResourceNotFoundException("Ekipman bulunamadı: " + equipmentId);
         }
         equipmentRepository.deleteById(equipmentId);
+        availabilityCache.evictAll(AVAILABLE_EQUIPMENT_CACHE);
+        catalogVersions.bump(Catalog.EQUIPMENT);
+        autocompleteIndex.onDeleted(Kind.EQUIPMENT, equipmentId);
     }
 
     private EquipmentDTO convertToDTO(Equipment equipment) {
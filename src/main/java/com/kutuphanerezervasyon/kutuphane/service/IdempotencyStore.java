@@ -0,0 +1,202 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ Idempotency-Key ile gelen yazma isteklerinin cevap deposu
+ Bellekte boyutu sınırlı, süreli bir LRU önbellek tutulur; kalıcı kopya idempotency_keys tablosundadır
+ Böylece tekrar istek başka bir sunucuya düşse bile ilk cevap döner
+ Cevabı olmayan kayıt isteğin hâlâ işlendiğini gösterir
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.idempotency.table-enabled:true}")
+    private boolean tableEnabled;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Bu süreden eski "işleniyor" kayıtları yarım kalmış sayılır ve devralınabilir
+    @Value("${app.idempotency.in-flight-timeout-seconds:60}")
+    private long inFlightTimeoutSeconds;
+
+    // Erişim sırasına göre LRU, en eski kayıt kapasite aşılınca atılır
+    private final Map<String, StoredResponse> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public record StoredResponse(String fingerprint, Integer status, String contentType, byte[] body,
+                                 Instant createdAt) {
+
+        public boolean isCompleted() {
+            return status != null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /*
+     Anahtarı bu istek için sahiplenmeye çalışır
+     null dönerse istek işlenmelidir; aksi halde mevcut kayıt döner (tamamlanmış veya işleniyor)
+     Veritabanı adımı hata verirse bellekteki sahiplenme geri alınır, anahtar "işleniyor" olarak kalmaz
+     */
+    public StoredResponse begin(String key, String fingerprint) {
+        Instant now = now();
+        StoredResponse claim = new StoredResponse(fingerprint, null, null, null, now);
+        synchronized (cache) {
+            StoredResponse cached = cache.get(key);
+            if (cached != null && !isExpired(cached, now) && !isStale(cached, now)) {
+                return cached;
+            }
+            cache.put(key, claim);
+        }
+        StoredResponse existing;
+        try {
+            if (!tableEnabled || claimRow(key, claim)) {
+                return null;
+            }
+            existing = loadRow(key);
+            if (existing == null || isExpired(existing, now) || isStale(existing, now)) {
+                if (existing == null ? claimRow(key, claim) : takeOverRow(key, existing, claim)) {
+                    return null;
+                }
+                existing = loadRow(key);
+            }
+        } catch (RuntimeException e) {
+            synchronized (cache) {
+                cache.remove(key, claim);
+            }
+            throw e;
+        }
+        synchronized (cache) {
+            if (existing != null && existing.isCompleted()) {
+                cache.put(key, existing);
+            } else {
+                cache.remove(key, claim);
+            }
+        }
+        // Bu arada silinmiş olabilir, istemci tekrar denesin
+        return existing != null ? existing : new StoredResponse(fingerprint, null, null, null, now);
+    }
+
+    public void complete(String key, String fingerprint, int status, String contentType, byte[] body) {
+        StoredResponse response = new StoredResponse(fingerprint, status, contentType, body, now());
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+        if (tableEnabled) {
+            jdbcTemplate.update(
+                    "UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ?, created_at = ? " +
+                    "WHERE idempotency_key = ?",
+                    status, contentType, body, Timestamp.from(response.createdAt()), key);
+        }
+    }
+
+    // İstek kaydedilemeyecek şekilde bittiyse (5xx, beklenmeyen hata) anahtar serbest bırakılır
+    public void abandon(String key) {
+        synchronized (cache) {
+            StoredResponse cached = cache.get(key);
+            if (cached != null && !cached.isCompleted()) {
+                cache.remove(key);
+            }
+        }
+        if (tableEnabled) {
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL", key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:600000}")
+    public void removeExpired() {
+        Instant now = Instant.now();
+        synchronized (cache) {
+            // Yarım kalmış "işleniyor" kayıtları da atılır
+            cache.values().removeIf(response -> isExpired(response, now) || isStale(response, now));
+        }
+        if (tableEnabled) {
+            int removed = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                    Timestamp.from(now.minus(Duration.ofMinutes(ttlMinutes))));
+            if (removed > 0) {
+                log.debug("{} süresi dolmuş idempotency kaydı silindi", removed);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private boolean claimRow(String key, StoredResponse claim) {
+        return jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at) VALUES (?, ?, ?) " +
+                "ON CONFLICT (idempotency_key) DO NOTHING",
+                key, claim.fingerprint(), Timestamp.from(claim.createdAt())) == 1;
+    }
+
+    // Yarım kalmış veya süresi dolmuş kaydı devralır - aynı anda tek bir sunucu başarılı olur
+    private boolean takeOverRow(String key, StoredResponse existing, StoredResponse claim) {
+        return jdbcTemplate.update(
+                "UPDATE idempotency_keys SET fingerprint = ?, status_code = NULL, content_type = NULL, " +
+                "response_body = NULL, created_at = ? WHERE idempotency_key = ? AND created_at = ?",
+                claim.fingerprint(), Timestamp.from(claim.createdAt()), key,
+                Timestamp.from(existing.createdAt())) == 1;
+    }
+
+    private StoredResponse loadRow(String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status_code, content_type, response_body, created_at " +
+                "FROM idempotency_keys WHERE idempotency_key = ?",
+                (rs, rowNum) -> new StoredResponse(
+                        rs.getString("fingerprint"),
+                        (Integer) rs.getObject("status_code"),
+                        rs.getString("content_type"),
+                        rs.getBytes("response_body"),
+                        rs.getTimestamp("created_at").toInstant()),
+                key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // PostgreSQL TIMESTAMP mikrosaniye hassasiyetinde, devralma karşılaştırması için aynı hassasiyet kullanılır
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private boolean isExpired(StoredResponse response, Instant now) {
+        return response.createdAt().plus(Duration.ofMinutes(ttlMinutes)).isBefore(now);
+    }
+
+    private boolean isStale(StoredResponse response, Instant now) {
+        return !response.isCompleted()
+                && response.createdAt().plusSeconds(inFlightTimeoutSeconds).isBefore(now);
+    }
+}
@@ -0,0 +1,119 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ Çakışmasız bekleyen rezervasyonların otomatik onayı
+ Bugünden horizon-days gün sonrasına kadar bekleyeni olan her gün, batch-size'lık partiler halinde
+ ReservationBulkService.confirmOldestPending ile işlenir: her oda/ekipman slotunda ilk gelen onaylanır, aynı
+ slotu isteyen diğerleri iptal edilir. Her parti ayrı bir transaction'dır, uzun süre kilit tutulmaz
+ Geçmiş günlerin bekleyenlerine dokunulmaz
+ Zamanlanmış çalışma isteğe bağlıdır (enabled=false varsayılan), admin tetiklemesi her zaman çalışır
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationAutoConfirmer {
+
+    private final ReservationBulkService reservationBulkService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reservation.auto-confirm.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.reservation.auto-confirm.horizon-days:31}")
+    private int horizonDays;
+
+    @Value("${app.reservation.auto-confirm.batch-size:500}")
+    private int batchSize;
+
+    // Zamanlanmış çalışma ile admin tetiklemesi üst üste binmesin
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastRunAt = new AtomicReference<>();
+
+    @Scheduled(fixedDelayString = "${app.reservation.auto-confirm.interval-ms:60000}",
+            initialDelayString = "${app.reservation.auto-confirm.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            // Sonraki çalışma tekrar dener
+            log.warn("Otomatik onay çalışması başarısız: {}", e.getMessage());
+        }
+    }
+
+    // Başka bir çalışma sürüyorsa beklemeden boş sonuç döner
+    public BulkStatusResult run() {
+        if (!running.tryLock()) {
+            return new BulkStatusResult(List.of(), List.of(), List.of());
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            LocalTime now = LocalTime.now();
+            List<LocalDate> dates = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT reservation_date FROM reservations " +
+                    "WHERE status = 'BEKLENIYOR' AND reservation_date BETWEEN ? AND ? ORDER BY reservation_date",
+                    LocalDate.class, Date.valueOf(today), Date.valueOf(today.plusDays(horizonDays)));
+
+            BulkStatusResult total = new BulkStatusResult(new ArrayList<>(), new ArrayList<>(), List.of());
+            for (LocalDate date : dates) {
+                LocalTime notBefore = date.equals(today) ? now : LocalTime.MIN;
+                BulkStatusResult batch;
+                do {
+                    batch = reservationBulkService.confirmOldestPending(date, notBefore, batchSize);
+                    total.getUpdated().addAll(batch.getUpdated());
+                    total.getConflicted().addAll(batch.getConflicted());
+                } while (batch.getUpdated().size() + batch.getConflicted().size() >= batchSize);
+            }
+
+            runs.incrementAndGet();
+            confirmed.addAndGet(total.getUpdated().size());
+            rejected.addAndGet(total.getConflicted().size());
+            lastRunAt.set(LocalDateTime.now());
+            if (!total.getUpdated().isEmpty() || !total.getConflicted().isEmpty()) {
+                log.info("Otomatik onay: {} onaylandı, {} çakışma nedeniyle iptal edildi",
+                        total.getUpdated().size(), total.getConflicted().size());
+            }
+            return total;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("horizonDays", horizonDays);
+        stats.put("batchSize", batchSize);
+        stats.put("runs", runs.get());
+        stats.put("confirmed", confirmed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("lastRunAt", lastRunAt.get());
+        return stats;
+    }
+}
@@ -0,0 +1,229 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusRequest;
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusResult;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.exception.ReservationConflictException;
+import com.kutuphanerezervasyon.kutuphane.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+ Bekleyen rezervasyonların toplu onayı/iptali (sabah onay oturumları için)
+ Kayıt başına findById + save yerine durum değişikliği UPDATE ... WHERE status = 'BEKLENIYOR' RETURNING
+ ile tek ifadede yapılır; dönen satırlar bellek içi yapılara (doluluk indeksi, kota, önbellek, canlı akış) uygulanır
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ReservationBulkService {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationOccupancyIndex occupancyIndex;
+    private final UserQuotaLedger quotaLedger;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityEventStream availabilityEvents;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.reservation.bulk.max-size:1000}")
+    private int maxSize;
+
+    private record SlotKey(boolean room, Integer resourceId, LocalDate date, Integer timeSlotId) {
+    }
+
+    /*
+     Adaylar ID sırasıyla kilitlenerek okunur; aynı oda/ekipman slotunu isteyenlerden ilk gelen (küçük ID) onaylanır
+     Zaten onaylı bir rezervasyonla veya bu turda onaylananla çakışan bekleyenler aynı geçişte iptal edilir
+     */
+    public BulkStatusResult confirm(BulkStatusRequest request) {
+        List<ReservationSlotRow> candidates = lockPending(request);
+        BulkStatusResult result = resolve(candidates);
+        result.setSkipped(skipped(request, ids(candidates)));
+        return result;
+    }
+
+    /*
+     Otomatik onay için: günün en eski bekleyenlerinden en fazla limit kadarı
+     Başlamış (notBefore'dan önceki) dilimler ve rezervasyona kapalı (bakımda, dolu/rezerve) oda/ekipmanlar alınmaz,
+     onlar admin kararına kalır; durum koşulu tekil rezervasyon kontrolleriyle aynıdır
+     Partiler ID sırasıyla işlendiği için önceki partide onaylanan sonraki partide dolu slot olarak görülür
+     */
+    public BulkStatusResult confirmOldestPending(LocalDate date, LocalTime notBefore, int limit) {
+        reservationRepository.flush();
+        List<ReservationSlotRow> candidates = jdbcTemplate.query(
+                "SELECT r.reservation_id, r.user_id, r.room_id, r.equipment_id, r.time_slot_id, " +
+                "r.reservation_date, r.status FROM reservations r " +
+                "JOIN time_slots ts ON ts.time_slot_id = r.time_slot_id " +
+                "LEFT JOIN rooms ro ON ro.room_id = r.room_id " +
+                "LEFT JOIN equipment e ON e.equipment_id = r.equipment_id " +
+                "WHERE r.status = 'BEKLENIYOR' AND r.reservation_date = ? AND ts.start_time >= ? " +
+                "AND " + ReservationService.BOOKABLE_RESOURCES_SQL + " " +
+                "ORDER BY r.reservation_id LIMIT ? FOR UPDATE OF r",
+                ReservationSlotRow.MAPPER, Date.valueOf(date), Time.valueOf(notBefore), limit);
+        return resolve(candidates);
+    }
+
+    private BulkStatusResult resolve(List<ReservationSlotRow> candidates) {
+        Set<SlotKey> taken = confirmedSlots(candidates);
+        List<Integer> winners = new ArrayList<>();
+        List<Integer> losers = new ArrayList<>();
+        for (ReservationSlotRow candidate : candidates) {
+            List<SlotKey> keys = keys(candidate.getRoomId(), candidate.getEquipmentId(),
+                    candidate.getReservationDate(), candidate.getTimeSlotId());
+            if (keys.stream().anyMatch(taken::contains)) {
+                losers.add(candidate.getReservationId());
+            } else {
+                taken.addAll(keys);
+                winners.add(candidate.getReservationId());
+            }
+        }
+
+        List<ReservationSlotRow> confirmed;
+        try {
+            confirmed = updatePending(winners, ReservationStatus.ONAYLANDI);
+        } catch (DataIntegrityViolationException e) {
+            // Kilitlenmeyen bir rezervasyon bu arada aynı slotu onaylamış olabilir
+            throw new ReservationConflictException(
+                    "Onaylanan rezervasyonlardan biri bu sırada başka bir onayla çakıştı, lütfen tekrar deneyin");
+        }
+        List<ReservationSlotRow> cancelled = updatePending(losers, ReservationStatus.IPTAL_EDILDI);
+
+        Set<SlotKey> evicted = new HashSet<>();
+        for (ReservationSlotRow row : confirmed) {
+            afterStatusChange(row);
+            if (evicted.add(new SlotKey(false, null, row.getReservationDate(), row.getTimeSlotId()))) {
+                availabilityCache.evict(row.getReservationDate(), row.getTimeSlotId());
+            }
+        }
+        cancelled.forEach(this::afterStatusChange);
+
+        return new BulkStatusResult(ids(confirmed), ids(cancelled), List.of());
+    }
+
+    public BulkStatusResult cancel(BulkStatusRequest request) {
+        validate(request);
+        List<ReservationSlotRow> cancelled = request.getDate() != null
+                ? jdbcTemplate.query(
+                        "UPDATE reservations SET status = 'IPTAL_EDILDI' " +
+                        "WHERE status = 'BEKLENIYOR' AND reservation_date = ? RETURNING " + ReservationSlotRow.COLUMNS,
+                        ReservationSlotRow.MAPPER, Date.valueOf(request.getDate()))
+                : updatePending(request.getReservationIds(), ReservationStatus.IPTAL_EDILDI);
+        cancelled.forEach(this::afterStatusChange);
+
+        List<Integer> updated = ids(cancelled);
+        return new BulkStatusResult(updated, List.of(), skipped(request, updated));
+    }
+
+    private List<ReservationSlotRow> lockPending(BulkStatusRequest request) {
+        validate(request);
+        // JPA ile bu transaction'da yapılmış değişiklikler JDBC sorgusundan önce yazılsın
+        reservationRepository.flush();
+        if (request.getDate() != null) {
+            return jdbcTemplate.query(
+                    "SELECT " + ReservationSlotRow.COLUMNS + " FROM reservations " +
+                    "WHERE status = 'BEKLENIYOR' AND reservation_date = ? ORDER BY reservation_id FOR UPDATE",
+                    ReservationSlotRow.MAPPER, Date.valueOf(request.getDate()));
+        }
+        return jdbcTemplate.query(
+                "SELECT " + ReservationSlotRow.COLUMNS + " FROM reservations " +
+                "WHERE status = 'BEKLENIYOR' AND reservation_id = ANY(?) ORDER BY reservation_id FOR UPDATE",
+                ReservationSlotRow.MAPPER, (Object) request.getReservationIds().toArray(Integer[]::new));
+    }
+
+    // Adayların tarih aralığında, aynı oda veya ekipmana ait onaylı slotlar
+    private Set<SlotKey> confirmedSlots(List<ReservationSlotRow> candidates) {
+        Set<SlotKey> taken = new HashSet<>();
+        if (candidates.isEmpty()) {
+            return taken;
+        }
+        LocalDate from = candidates.stream().map(ReservationSlotRow::getReservationDate).min(Comparator.naturalOrder()).get();
+        LocalDate to = candidates.stream().map(ReservationSlotRow::getReservationDate).max(Comparator.naturalOrder()).get();
+        Integer[] roomIds = candidates.stream().map(ReservationSlotRow::getRoomId).filter(Objects::nonNull)
+                .distinct().toArray(Integer[]::new);
+        Integer[] equipmentIds = candidates.stream().map(ReservationSlotRow::getEquipmentId).filter(Objects::nonNull)
+                .distinct().toArray(Integer[]::new);
+
+        jdbcTemplate.query(
+                "SELECT " + ReservationSlotRow.COLUMNS + " FROM reservations " +
+                "WHERE status = 'ONAYLANDI' AND reservation_date BETWEEN ? AND ? " +
+                "AND (room_id = ANY(?) OR equipment_id = ANY(?))",
+                ReservationSlotRow.MAPPER, Date.valueOf(from), Date.valueOf(to), roomIds, equipmentIds)
+                .forEach(row -> taken.addAll(keys(row.getRoomId(), row.getEquipmentId(),
+                        row.getReservationDate(), row.getTimeSlotId())));
+        return taken;
+    }
+
+    private List<ReservationSlotRow> updatePending(List<Integer> reservationIds, ReservationStatus status) {
+        if (reservationIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                "UPDATE reservations SET status = ? " +
+                "WHERE status = 'BEKLENIYOR' AND reservation_id = ANY(?) RETURNING " + ReservationSlotRow.COLUMNS,
+                ReservationSlotRow.MAPPER, status.name(), reservationIds.toArray(Integer[]::new));
+    }
+
+    private void afterStatusChange(ReservationSlotRow row) {
+        occupancyIndex.onStatusChanged(row, ReservationStatus.BEKLENIYOR);
+        availabilityEvents.publish(row, ReservationStatus.BEKLENIYOR);
+        if (row.getStatus() == ReservationStatus.IPTAL_EDILDI) {
+            quotaLedger.release(row.getUserId(), row.getReservationId());
+        }
+    }
+
+    private void validate(BulkStatusRequest request) {
+        List<Integer> ids = request.getReservationIds();
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (hasIds == (request.getDate() != null)) {
+            throw new InvalidOperationException("reservationIds veya date alanlarından yalnızca biri verilmelidir");
+        }
+        if (hasIds && ids.size() > maxSize) {
+            throw new InvalidOperationException("Tek seferde en fazla " + maxSize + " rezervasyon işlenebilir");
+        }
+        if (hasIds && ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidOperationException("Rezervasyon ID'leri boş olamaz");
+        }
+    }
+
+    private static List<SlotKey> keys(Integer roomId, Integer equipmentId, LocalDate date, Integer timeSlotId) {
+        List<SlotKey> keys = new ArrayList<>(2);
+        if (roomId != null) {
+            keys.add(new SlotKey(true, roomId, date, timeSlotId));
+        }
+        if (equipmentId != null) {
+            keys.add(new SlotKey(false, equipmentId, date, timeSlotId));
+        }
+        return keys;
+    }
+
+    private static List<Integer> ids(List<ReservationSlotRow> rows) {
+        return rows.stream().map(ReservationSlotRow::getReservationId).toList();
+    }
+
+    // ID listesiyle gelen istekte bulunamayan veya beklemede olmayanlar
+    private static List<Integer> skipped(BulkStatusRequest request, List<Integer> processed) {
+        if (request.getReservationIds() == null || request.getDate() != null) {
+            return List.of();
+        }
+        Set<Integer> seen = new HashSet<>(processed);
+        return List.copyOf(new LinkedHashSet<>(request.getReservationIds().stream()
+                .filter(id -> !seen.contains(id)).toList()));
+    }
+}
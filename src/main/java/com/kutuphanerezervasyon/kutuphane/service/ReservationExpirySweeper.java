@@ -0,0 +1,140 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ Zaman dilimi bittiği halde beklemede kalan rezervasyonları SURESI_DOLDU yapar
+ Her parti ayrı transaction'da en fazla batch-size satırı günceller (ctid ile, ikinci bir indeks araması olmadan)
+ Tablo aylık bölümlü olduğundan ctid sadece bölüm içinde tekildir, tableoid ile birlikte eşleştirilir
+ SKIP LOCKED sayesinde o an admin/otomatik onayın kilitlediği satırlar beklenmeden sonraki çalışmaya bırakılır
+ Bekleyenler listesi, findByStatus ve panel sayaçları böylece sadece canlı satırları görür
+ */
+@Slf4j
+@Component
+public class ReservationExpirySweeper {
+
+    private static final String EXPIRE_BATCH_SQL =
+            "UPDATE reservations SET status = 'SURESI_DOLDU' WHERE (tableoid, ctid) IN (" +
+            "SELECT r.tableoid, r.ctid FROM reservations r JOIN time_slots ts ON ts.time_slot_id = r.time_slot_id " +
+            "WHERE r.status = 'BEKLENIYOR' AND (r.reservation_date < ? OR (r.reservation_date = ? AND ts.end_time <= ?)) " +
+            "LIMIT ? FOR UPDATE OF r SKIP LOCKED) " +
+            "AND status = 'BEKLENIYOR' AND reservation_date <= ? RETURNING " + ReservationSlotRow.COLUMNS;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReservationOccupancyIndex occupancyIndex;
+    private final TransactionTemplate batchTransaction;
+
+    @Value("${app.reservation.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservation.expiry.batch-size:1000}")
+    private int batchSize;
+
+    // Tek çalışmada en fazla bu kadar parti; kalan birikim sonraki çalışmaya kalır
+    @Value("${app.reservation.expiry.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lastRunExpired = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastRunAt = new AtomicReference<>();
+
+    public ReservationExpirySweeper(JdbcTemplate jdbcTemplate, ReservationOccupancyIndex occupancyIndex,
+                                    PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.occupancyIndex = occupancyIndex;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.reservation.expiry.cron:0 */15 * * * *}")
+    public void scheduledSweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Süresi dolan rezervasyon taraması başarısız: {}", e.getMessage());
+        }
+    }
+
+    // Süresi dolan rezervasyon sayısı; başka bir tarama sürüyorsa 0
+    public int sweep() {
+        if (!running.tryLock()) {
+            return 0;
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            LocalTime now = LocalTime.now();
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                List<ReservationSlotRow> rows = batchTransaction.execute(status -> expireBatch(today, now));
+                batches.incrementAndGet();
+                total += rows.size();
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+
+            runs.incrementAndGet();
+            expired.addAndGet(total);
+            lastRunExpired.set(total);
+            lastRunMillis.set((System.nanoTime() - started) / 1_000_000);
+            lastRunAt.set(LocalDateTime.now());
+            if (total > 0) {
+                log.info("{} bekleyen rezervasyonun süresi doldu ({} ms)", total, lastRunMillis.get());
+            }
+            return total;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private List<ReservationSlotRow> expireBatch(LocalDate today, LocalTime now) {
+        List<ReservationSlotRow> rows = jdbcTemplate.query(EXPIRE_BATCH_SQL, ReservationSlotRow.MAPPER,
+                Date.valueOf(today), Date.valueOf(today), Time.valueOf(now), batchSize, Date.valueOf(today));
+        // İndeks bugünden itibaren tutar, bugün biten dilimlerin kullanıcı kaydı düşülür
+        rows.forEach(row -> occupancyIndex.onStatusChanged(row, ReservationStatus.BEKLENIYOR));
+        return rows;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("batchSize", batchSize);
+        stats.put("runs", runs.get());
+        stats.put("batches", batches.get());
+        stats.put("expired", expired.get());
+        stats.put("failures", failures.get());
+        stats.put("lastRunExpired", lastRunExpired.get());
+        stats.put("lastRunMillis", lastRunMillis.get());
+        stats.put("lastRunAt", lastRunAt.get());
+        return stats;
+    }
+}
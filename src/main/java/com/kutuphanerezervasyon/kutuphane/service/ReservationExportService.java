@@ -0,0 +1,102 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationExportRow;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/*
+ Rezervasyonları NDJSON veya CSV olarak dışa aktarır
+ Satırlar veritabanından fetch size ile parça parça okunur ve Jackson ile doğrudan cevaba yazılır
+ Bellekte liste oluşturulmaz; satırlar entity yerine doğrudan DTO olarak okunur, persistence context büyümez
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv; charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidOperationException("Desteklenmeyen dışa aktarma formatı: " + value);
+            }
+        }
+    }
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.reservation.export.fetch-size:500}")
+    private int fetchSize;
+
+    // Sayfalama alanları (size, cursor) dikkate alınmaz, filtreye uyan tüm satırlar yazılır
+    @Transactional(readOnly = true)
+    public void export(ReservationQuery query, Format format, OutputStream out) throws IOException {
+        if (query.getFromDate() != null && query.getToDate() != null
+                && query.getFromDate().isAfter(query.getToDate())) {
+            throw new InvalidOperationException("Başlangıç tarihi bitiş tarihinden sonra olamaz");
+        }
+
+        int written = 0;
+        try (Stream<ReservationExportRow> rows = reservationRepository.streamForExport(query, fetchSize);
+             SequenceWriter writer = writerFor(format).writeValues(out)) {
+            Iterator<ReservationExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % fetchSize == 0) {
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    private ObjectWriter writerFor(Format format) {
+        ObjectWriter writer = format == Format.CSV
+                ? CSV_MAPPER.writerFor(ReservationExportRow.class)
+                        .with(CSV_MAPPER.schemaFor(ReservationExportRow.class).withHeader())
+                : objectMapper.writerFor(ReservationExportRow.class).withRootValueSeparator("\n");
+        // Her satırda flush yerine fetch size kadar satırda bir flush
+        return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+}
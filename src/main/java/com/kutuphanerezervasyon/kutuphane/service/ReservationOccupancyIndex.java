@@ -0,0 +1,380 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
+import com.kutuphanerezervasyon.kutuphane.entity.Reservation;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import com.kutuphanerezervasyon.kutuphane.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/*
+ Rezervasyon çakışma kontrolleri için bellek içi doluluk indeksi
+ Oda/ekipman için onaylı, kullanıcı için aktif (onaylı veya bekleyen) slotları tutar
+ Açılışta veritabanından yüklenir, her gece yeniden kurulur
+ Sadece bu sunucunun commit'lerini gördüğü için tek sunucu içindir; advisory kilit modunda açılmaz
+ Değişiklikler commit sonrasında uygulanır; commit edilmemiş veya geri alınmış rezervasyon başka isteğe görünmez
+ Doğrulama modunda her cevap SQL sorgusu ile karşılaştırılır ve SQL sonucu kullanılır
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationOccupancyIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    @Value("${app.reservation.occupancy-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservation.occupancy-index.verify:false}")
+    private boolean verify;
+
+    @Value("${app.reservation.booking-lock.mode:local}")
+    private String bookingLockMode;
+
+    // Commit edilen değişiklikler okuma kilidiyle paralel uygulanır, yeniden kurulum yazma kilidi alır
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Yüklenmeden önce null, bu durumda tüm kontroller SQL'e düşer
+    private volatile Snapshot snapshot;
+
+    // Yeniden kurulum veritabanından okurken commit edilen değişiklikler, yeni anlık görüntüye tekrar uygulanır
+    private volatile Queue<Map<SlotKey, Boolean>> rebuildJournal;
+
+    private record Snapshot(LocalDate loadedFrom, SlotBitmap rooms, SlotBitmap equipment, SlotBitmap users) {
+    }
+
+    private enum Kind {
+        ROOM("oda", Snapshot::rooms),
+        EQUIPMENT("ekipman", Snapshot::equipment),
+        USER("kullanıcı", Snapshot::users);
+
+        private final String label;
+        private final Function<Snapshot, SlotBitmap> bitmap;
+
+        Kind(String label, Function<Snapshot, SlotBitmap> bitmap) {
+            this.label = label;
+            this.bitmap = bitmap;
+        }
+
+        SlotBitmap bitmap(Snapshot snapshot) {
+            return bitmap.apply(snapshot);
+        }
+    }
+
+    private record SlotKey(Kind kind, int id, LocalDate date, int slot) {
+    }
+
+    @PostConstruct
+    void checkSingleNode() {
+        if (enabled && "advisory".equals(bookingLockMode)) {
+            throw new IllegalStateException("Doluluk indeksi tek sunucu içindir, advisory kilit modunda " +
+                    "app.reservation.occupancy-index.enabled=false olmalıdır");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${app.reservation.occupancy-index.rebuild-cron:0 5 0 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /*
+     Satırlar kilit tutulmadan okunur; commit eden transaction'lar bu sırada beklemez (bağlantı tutarak havuzu
+     tüketmezler). Okumaya başlamadan önce günlük açılır, okuma sırasında commit edilen değişiklikler oraya da yazılır;
+     yazma kilidi sadece yeni anlık görüntüyü yerine koyarken ve günlüğü ona uygularken alınır
+     */
+    public synchronized Map<String, Object> rebuild() {
+        Queue<Map<SlotKey, Boolean>> journal = new ConcurrentLinkedQueue<>();
+        // Commit'i sürmekte olan transaction'lar biter; bundan sonra commit edenler günlüğe de yazar
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = journal;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot rebuilt;
+        int rowCount;
+        try {
+            LocalDate from = LocalDate.now();
+            rebuilt = new Snapshot(from, new SlotBitmap(), new SlotBitmap(), new SlotBitmap());
+            List<ReservationSlotView> rows = reservationRepository.findActiveSlotsFrom(from);
+            for (ReservationSlotView row : rows) {
+                rebuilt.users().set(row.getUserId(), row.getReservationDate(), row.getTimeSlotId());
+                if (row.getStatus() == ReservationStatus.ONAYLANDI) {
+                    if (row.getRoomId() != null) {
+                        rebuilt.rooms().set(row.getRoomId(), row.getReservationDate(), row.getTimeSlotId());
+                    }
+                    if (row.getEquipmentId() != null) {
+                        rebuilt.equipment().set(row.getEquipmentId(), row.getReservationDate(), row.getTimeSlotId());
+                    }
+                }
+            }
+            rowCount = rows.size();
+        } catch (RuntimeException e) {
+            rebuildJournal = null;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Sorgunun zaten gördüğü değişikliklerin tekrar uygulanması sonucu değiştirmez
+            journal.forEach(changes -> applyTo(rebuilt, changes));
+            snapshot = rebuilt;
+            rebuildJournal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Doluluk indeksi yüklendi: {} rezervasyon, {} tarihinden itibaren", rowCount, rebuilt.loadedFrom());
+        return getStats();
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("verify", verify);
+        stats.put("loaded", current != null);
+        if (current != null) {
+            stats.put("loadedFrom", current.loadedFrom());
+            stats.put("roomKeys", current.rooms().size());
+            stats.put("equipmentKeys", current.equipment().size());
+            stats.put("userKeys", current.users().size());
+        }
+        return stats;
+    }
+
+    // ========== ÇAKIŞMA KONTROLLERİ ==========
+
+    // Bu tarih için indeks veritabanına gitmeden kesin cevap verebiliyor mu
+    public boolean answersWithoutDatabase(LocalDate date) {
+        Snapshot current = snapshot;
+        return current != null && !verify && !date.isBefore(current.loadedFrom());
+    }
+
+    public boolean isRoomBooked(Integer roomId, LocalDate date, Integer timeSlotId) {
+        return isRoomBooked(roomId, date, timeSlotId,
+                () -> reservationRepository.checkRoomConflict(roomId, date, timeSlotId) > 0);
+    }
+
+    public boolean isEquipmentBooked(Integer equipmentId, LocalDate date, Integer timeSlotId) {
+        return isEquipmentBooked(equipmentId, date, timeSlotId,
+                () -> reservationRepository.checkEquipmentConflict(equipmentId, date, timeSlotId) > 0);
+    }
+
+    public boolean hasUserBooking(Integer userId, LocalDate date, Integer timeSlotId) {
+        return hasUserBooking(userId, date, timeSlotId,
+                () -> reservationRepository.checkUserTimeSlotConflict(userId, date, timeSlotId) > 0);
+    }
+
+    // database: indeks cevap veremediğinde veya doğrulama modunda kullanılacak veritabanı sonucu
+    public boolean isRoomBooked(Integer roomId, LocalDate date, Integer timeSlotId, BooleanSupplier database) {
+        return lookup(Kind.ROOM, roomId, date, timeSlotId, database);
+    }
+
+    public boolean isEquipmentBooked(Integer equipmentId, LocalDate date, Integer timeSlotId, BooleanSupplier database) {
+        return lookup(Kind.EQUIPMENT, equipmentId, date, timeSlotId, database);
+    }
+
+    public boolean hasUserBooking(Integer userId, LocalDate date, Integer timeSlotId, BooleanSupplier database) {
+        return lookup(Kind.USER, userId, date, timeSlotId, database);
+    }
+
+    private boolean lookup(Kind kind, Integer id, LocalDate date, Integer timeSlotId, BooleanSupplier sql) {
+        Snapshot current = snapshot;
+        if (current == null || date.isBefore(current.loadedFrom())) {
+            return sql.getAsBoolean();
+        }
+        // Bu transaction'ın henüz commit edilmemiş değişikliği ortak indeksten önce gelir
+        PendingChanges pending = currentPendingChanges();
+        Boolean own = pending != null ? pending.changes.get(new SlotKey(kind, id, date, timeSlotId)) : null;
+        boolean indexed = own != null ? own : kind.bitmap(current).contains(id, date, timeSlotId);
+        if (!verify) {
+            return indexed;
+        }
+        boolean actual = sql.getAsBoolean();
+        if (indexed != actual) {
+            log.warn("Doluluk indeksi uyuşmazlığı ({}): id={}, tarih={}, slot={}, indeks={}, veritabanı={}",
+                    kind.label, id, date, timeSlotId, indexed, actual);
+        }
+        return actual;
+    }
+
+    // ========== GÜNCELLEMELER ==========
+
+    public void onCreated(Reservation reservation) {
+        apply(reservation, null, reservation.getStatus());
+    }
+
+    public void onStatusChanged(Reservation reservation, ReservationStatus previousStatus) {
+        apply(reservation, previousStatus, reservation.getStatus());
+    }
+
+    // Toplu UPDATE ... RETURNING sonucu gibi entity yüklenmeden değişen satırlar için
+    public void onStatusChanged(ReservationSlotView row, ReservationStatus previousStatus) {
+        apply(row.getUserId(), row.getRoomId(), row.getEquipmentId(), row.getReservationDate(), row.getTimeSlotId(),
+                previousStatus, row.getStatus());
+    }
+
+    public void onDeleted(Reservation reservation) {
+        apply(reservation, reservation.getStatus(), null);
+    }
+
+    private void apply(Reservation reservation, ReservationStatus from, ReservationStatus to) {
+        apply(reservation.getUser().getUserId(),
+                reservation.getRoom() != null ? reservation.getRoom().getRoomId() : null,
+                reservation.getEquipment() != null ? reservation.getEquipment().getEquipmentId() : null,
+                reservation.getReservationDate(), reservation.getTimeSlot().getTimeSlotId(), from, to);
+    }
+
+    /*
+     Transaction içindeyse değişiklik önce o transaction'ın bekleyen değişikliklerine yazılır (aynı
+     transaction'daki sonraki kontroller görür, diğer istekler görmez), commit sonrasında ortak indekse uygulanır
+     Geri alınan transaction'ın değişiklikleri hiç uygulanmaz
+     */
+    private void apply(Integer userId, Integer roomId, Integer equipmentId, LocalDate date, int slot,
+                       ReservationStatus from, ReservationStatus to) {
+        Map<SlotKey, Boolean> changes = new LinkedHashMap<>();
+        if (isActive(from) != isActive(to)) {
+            changes.put(new SlotKey(Kind.USER, userId, date, slot), isActive(to));
+        }
+        boolean wasConfirmed = from == ReservationStatus.ONAYLANDI;
+        boolean confirmed = to == ReservationStatus.ONAYLANDI;
+        if (wasConfirmed != confirmed) {
+            if (roomId != null) {
+                changes.put(new SlotKey(Kind.ROOM, roomId, date, slot), confirmed);
+            }
+            if (equipmentId != null) {
+                changes.put(new SlotKey(Kind.EQUIPMENT, equipmentId, date, slot), confirmed);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingChanges().changes.putAll(changes);
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            applyToSnapshot(changes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = currentPendingChanges();
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // Senkronizasyon listesi REQUIRES_NEW ile askıya alınır, böylece iç transaction kendi listesini görür
+    private PendingChanges currentPendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    // Okuma kilidi altında çağrılır
+    private void applyToSnapshot(Map<SlotKey, Boolean> changes) {
+        Queue<Map<SlotKey, Boolean>> journal = rebuildJournal;
+        if (journal != null) {
+            journal.add(changes);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            applyTo(current, changes);
+        }
+    }
+
+    private static void applyTo(Snapshot current, Map<SlotKey, Boolean> changes) {
+        changes.forEach((key, booked) -> {
+            if (key.date().isBefore(current.loadedFrom())) {
+                return;
+            }
+            SlotBitmap bitmap = key.kind().bitmap(current);
+            if (booked) {
+                bitmap.set(key.id(), key.date(), key.slot());
+            } else {
+                bitmap.clear(key.id(), key.date(), key.slot());
+            }
+        });
+    }
+
+    /*
+     Commit eden transaction beforeCommit'ten afterCompletion'a kadar okuma kilidini tutar
+     Yeniden kurulum günlüğü yazma kilidi altında açar: o anda commit'i sürmekte olan transaction kalmaz,
+     sonradan commit edenlerin değişikliği günlüğe girer ve yeni anlık görüntüye de uygulanır
+     Böylece veritabanı sorgusunun göremediği ama indekse de işlenmemiş bir değişiklik kaybolmaz
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<SlotKey, Boolean> changes = new LinkedHashMap<>();
+        private boolean locked;
+
+        ReservationOccupancyIndex owner() {
+            return ReservationOccupancyIndex.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lock.readLock().lock();
+            locked = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            applyToSnapshot(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (locked) {
+                locked = false;
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private static boolean isActive(ReservationStatus status) {
+        return status == ReservationStatus.ONAYLANDI || status == ReservationStatus.BEKLENIYOR;
+    }
+}
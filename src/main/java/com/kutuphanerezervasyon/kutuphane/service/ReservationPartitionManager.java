@@ -0,0 +1,225 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ Aylık rezervasyon bölümlerinin bakımı (bölümlü tablo ve create_reservation_partitions schema.sql'dedir)
+ Açılışta ve her gece months-ahead ay sonrasına kadar bölümler önceden oluşturulur, yeni rezervasyonlar
+ varsayılan bölüme düşmez
+ Tamamı saklama süresinden (retention-months) eski olan aylar gzip'li CSV olarak reservation_archive
+ tablosuna yazılıp bölümüyle birlikte silinir; her ay tek transaction'dır, yazma başarısızsa bölüm kalır
+ Bölümü olmadığı için varsayılan bölüme düşmüş eski aylar aynı transaction'da önce kendi bölümlerine alınır
+ Daha önce arşivlenmiş bir ay tekrar arşivlenirse yeni satırlar mevcut arşive eklenir (ayrı gzip üyesi olarak)
+ */
+@Slf4j
+@Component
+public class ReservationPartitionManager {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("reservations_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final String CSV_HEADER =
+            "reservation_id,user_id,room_id,equipment_id,time_slot_id,reservation_date,status\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate archiveTransaction;
+
+    @Value("${app.reservation.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.reservation.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${app.reservation.archive.retention-months:24}")
+    private int retentionMonths;
+
+    public ReservationPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.reservation.partitions.cron:0 15 0 * * *}")
+    public void nightly() {
+        try {
+            ensurePartitions();
+            if (archiveEnabled) {
+                archiveExpired();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rezervasyon bölüm bakımı başarısız: {}", e.getMessage());
+        }
+    }
+
+    // Bu aydan months-ahead ay sonrasına kadar eksik bölümleri oluşturur
+    public int ensurePartitions() {
+        LocalDate today = LocalDate.now();
+        Integer created = jdbcTemplate.queryForObject("SELECT create_reservation_partitions(?, ?)", Integer.class,
+                Date.valueOf(today), Date.valueOf(today.plusMonths(monthsAhead)));
+        if (created != null && created > 0) {
+            log.info("{} yeni rezervasyon bölümü oluşturuldu", created);
+        }
+        return created != null ? created : 0;
+    }
+
+    // Saklama süresini aşan ayları arşivler, arşivlenen ayları döner
+    public List<YearMonth> archiveExpired() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        SortedSet<YearMonth> months = new TreeSet<>(defaultMonthsBefore(cutoff));
+        partitionMonths().stream().filter(month -> month.isBefore(cutoff)).forEach(months::add);
+        List<YearMonth> archived = new ArrayList<>();
+        for (YearMonth month : months) {
+            int rows = archiveTransaction.execute(status -> archive(month));
+            archived.add(month);
+            log.info("Rezervasyon bölümü arşivlendi: {} ({} satır)", month, rows);
+        }
+        return archived;
+    }
+
+    // Varsayılan bölümde satırı kalmış, cutoff'tan önceki aylar
+    private List<YearMonth> defaultMonthsBefore(YearMonth cutoff) {
+        return jdbcTemplate.queryForList(
+                        "SELECT DISTINCT date_trunc('month', reservation_date)::date FROM reservations_default " +
+                        "WHERE reservation_date < ?", LocalDate.class, Date.valueOf(cutoff.atDay(1)))
+                .stream().map(YearMonth::from).toList();
+    }
+
+    // Varsayılan bölüm hariç, artan sırada
+    private List<YearMonth> partitionMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'reservations'::regclass ORDER BY c.relname", String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    private int archive(YearMonth month) {
+        String partition = "reservations_" + month.format(PARTITION_SUFFIX);
+        Date monthStart = Date.valueOf(month.atDay(1));
+        // Bölüm zaten varsa bir şey yapmaz; yoksa ayın varsayılan bölümdeki satırları yeni bölüme taşınır
+        jdbcTemplate.queryForObject("SELECT create_reservation_partitions(?, ?)", Integer.class, monthStart, monthStart);
+        // Aynı ay için önceki arşiv satırı kilitlenir; ekleniyorsa başlık tekrar yazılmaz
+        boolean appending = !jdbcTemplate.queryForList(
+                "SELECT 1 FROM reservation_archive WHERE archive_month = ? FOR UPDATE", Integer.class, monthStart)
+                .isEmpty();
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int[] rows = {0};
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8)) {
+            if (!appending) {
+                writer.write(CSV_HEADER);
+            }
+            jdbcTemplate.query("SELECT " + ReservationSlotRow.COLUMNS + " FROM " + partition +
+                    " ORDER BY reservation_id", rs -> {
+                try {
+                    writer.write(rs.getInt("reservation_id") + "," + rs.getInt("user_id") + ","
+                            + csv(rs.getObject("room_id")) + "," + csv(rs.getObject("equipment_id")) + ","
+                            + rs.getInt("time_slot_id") + "," + rs.getDate("reservation_date") + ","
+                            + rs.getString("status") + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Ardışık gzip üyeleri tek bir gzip akışı olarak okunur (GZIPInputStream, gunzip)
+        jdbcTemplate.update("INSERT INTO reservation_archive (archive_month, row_count, content, archived_at) " +
+                        "VALUES (?, ?, ?, ?) ON CONFLICT (archive_month) DO UPDATE SET " +
+                        "row_count = reservation_archive.row_count + EXCLUDED.row_count, " +
+                        "content = reservation_archive.content || EXCLUDED.content, " +
+                        "archived_at = EXCLUDED.archived_at",
+                monthStart, rows[0], buffer.toByteArray(), Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        return rows[0];
+    }
+
+    private static String csv(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // Arşivlenmiş bir ayın gzip'li CSV içeriği
+    public byte[] getArchive(YearMonth month) {
+        List<byte[]> content = jdbcTemplate.queryForList(
+                "SELECT content FROM reservation_archive WHERE archive_month = ?", byte[].class,
+                Date.valueOf(month.atDay(1)));
+        if (content.isEmpty()) {
+            throw new ResourceNotFoundException("Arşivlenmiş ay bulunamadı: " + month);
+        }
+        return content.get(0);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT c.relname, c.reltuples::bigint AS estimated_rows, " +
+                "pg_total_relation_size(c.oid) AS total_bytes " +
+                "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'reservations'::regclass ORDER BY c.relname",
+                rs -> {
+                    Map<String, Object> partition = new LinkedHashMap<>();
+                    // Hiç ANALYZE edilmemiş bölümde -1
+                    partition.put("estimatedRows", rs.getLong("estimated_rows"));
+                    partition.put("totalBytes", rs.getLong("total_bytes"));
+                    partitions.put(rs.getString("relname"), partition);
+                });
+
+        Map<String, Object> archive = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT archive_month, row_count, octet_length(content) AS bytes FROM reservation_archive " +
+                "ORDER BY archive_month",
+                rs -> {
+                    archive.put(YearMonth.from(rs.getDate("archive_month").toLocalDate()).toString(),
+                            Map.of("rows", rs.getInt("row_count"), "compressedBytes", rs.getLong("bytes")));
+                });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("monthsAhead", monthsAhead);
+        stats.put("archiveEnabled", archiveEnabled);
+        stats.put("retentionMonths", retentionMonths);
+        stats.put("partitions", partitions);
+        stats.put("archive", archive);
+        return stats;
+    }
+}
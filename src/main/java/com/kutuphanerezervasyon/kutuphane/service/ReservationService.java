@@ -5,21 +5,48 @@ import com.kutuphanerezervasyon.kutuphane.entity.*;
 import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
 import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
 import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
 import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
 import com.kutuphanerezervasyon.kutuphane.exception.MaxReservationLimitException;
 import com.kutuphanerezervasyon.kutuphane.exception.ReservationConflictException;
 import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
 import com.kutuphanerezervasyon.kutuphane.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /*
@@ -32,14 +59,38 @@ import java.util.stream.Collectors;
 @Transactional
 public class ReservationService {
 
+    private static final String BOOKING_MODE_OPTIMISTIC = "optimistic";
+
+    // Keyset sayfalama sırası - ix_reservations_date_id indeksi ile aynı
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "reservationDate", "reservationId");
+
+    // schema.sql'de tanımlı kısmi unique index isimleri
+    private static final String ROOM_CONFIRMED_SLOT_INDEX = "ux_reservations_room_confirmed_slot";
+    private static final String EQUIPMENT_CONFIRMED_SLOT_INDEX = "ux_reservations_equipment_confirmed_slot";
+    private static final String USER_ACTIVE_SLOT_INDEX = "ux_reservations_user_active_slot";
+
+    // Rezervasyona kapalı oda/ekipman durumları - tekil kontroller ve otomatik onay sorgusu aynı listeyi kullanır
+    static final Set<RoomStatus> UNBOOKABLE_ROOM_STATUSES = EnumSet.of(RoomStatus.MAINTENANCE, RoomStatus.OCCUPIED);
+    static final Set<EquipmentStatus> UNBOOKABLE_EQUIPMENT_STATUSES =
+            EnumSet.of(EquipmentStatus.MAINTENANCE, EquipmentStatus.RESERVED);
+
+    // Yukarıdaki listelerin SQL karşılığı; rooms "ro", equipment "e" takma adıyla LEFT JOIN edilmiş olmalı
+    static final String BOOKABLE_RESOURCES_SQL =
+            "(ro.status IS NULL OR ro.status NOT IN (" + sqlList(UNBOOKABLE_ROOM_STATUSES) + ")) " +
+            "AND (e.status IS NULL OR e.status NOT IN (" + sqlList(UNBOOKABLE_EQUIPMENT_STATUSES) + "))";
+
     private final ReservationRepository reservationRepository;
     private final UserRepository userRepository;
     private final RoomRepository roomRepository;
     private final EquipmentRepository equipmentRepository;
     private final TimeSlotRepository timeSlotRepository;
-
-    @Value("${app.reservation.max-active-per-user:2}")
-    private int maxActiveReservationsPerUser;
+    private final ReservationOccupancyIndex occupancyIndex;
+    private final BookingLockManager bookingLockManager;
+    private final UserQuotaLedger quotaLedger;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityEventStream availabilityEvents;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
 
     @Value("${app.reservation.min-duration-minutes:30}")
     private int minDurationMinutes;
@@ -50,94 +101,419 @@ public class ReservationService {
     @Value("${app.reservation.min-cancellation-hours:1}")
     private int minCancellationHours;
 
+    @Value("${app.reservation.batch.max-size:200}")
+    private int maxBatchSize;
+
+    @Value("${app.reservation.booking-mode:checked}")
+    private String bookingMode;
+
+    @Value("${app.reservation.query.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.reservation.query.max-page-size:100}")
+    private int maxPageSize;
+
+    // Geçmiş listelerinin varsayılan alt sınırı - daha eski aylar arşive taşınmış olur
+    @Value("${app.reservation.archive.retention-months:24}")
+    private int retentionMonths;
+
+    // Transaction'ı kilit yöneticisi açar (bkz. BookingLockManager.callWithLocks); çağıranınki varsa ona katılır
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ReservationDTO createReservation(ReservationRequest request) {
+        // Optimistic modda çakışma ön kontrolü ve kilit yoktur, çakışmayı veritabanı kısıtı yakalar
+        boolean optimistic = BOOKING_MODE_OPTIMISTIC.equals(bookingMode);
+
+        // Aynı oda/ekipman/kullanıcı slotuna gelen eşzamanlı istekler kontrol ve ekleme boyunca sıraya girer
+        List<Long> lockKeys = optimistic ? List.of() : BookingLockManager.bookingKeys(request.getUserId(),
+                request.getRoomId(), request.getEquipmentId(), request.getReservationDate(), request.getTimeSlotId());
+        return bookingLockManager.callWithLocks(lockKeys, () -> createReservationLocked(request, optimistic));
+    }
+
+    private ReservationDTO createReservationLocked(ReservationRequest request, boolean optimistic) {
         System.out.println("=== REZERVASYON OLUŞTURMA BAŞLADI ===");
         System.out.println("Request: " + request);
-        System.out.println("UserId: " + request.getUserId());
-        System.out.println("RoomId: " + request.getRoomId());
-        System.out.println("EquipmentId: " + request.getEquipmentId());
-        System.out.println("TimeSlotId: " + request.getTimeSlotId());
-        System.out.println("ReservationDate: " + request.getReservationDate());
-        
+
+        LocalDate date = request.getReservationDate();
+        Integer timeSlotId = request.getTimeSlotId();
+
+        // Tüm kontroller için tek sorgu - doluluk indeksi cevap verebiliyorsa çakışma alt sorguları atlanır
+        BookingPreflightView preflight = reservationRepository.preflightBooking(
+                request.getUserId(), request.getRoomId(), request.getEquipmentId(), timeSlotId, date,
+                LocalDate.now(), LocalTime.now(), !optimistic && !occupancyIndex.answersWithoutDatabase(date),
+                !quotaLedger.isEnabled());
+
         // Kullanıcı kontrolü
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + request.getUserId()));
+        if (!preflight.getUserExists()) {
+            throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + request.getUserId());
+        }
 
         // TimeSlot kontrolü
-        TimeSlot timeSlot = timeSlotRepository.findById(request.getTimeSlotId())
-                .orElseThrow(() -> new ResourceNotFoundException("Zaman dilimi bulunamadı: " + request.getTimeSlotId()));
+        if (!preflight.getTimeSlotExists()) {
+            throw new ResourceNotFoundException("Zaman dilimi bulunamadı: " + timeSlotId);
+        }
 
         // En az bir kaynak (Room veya Equipment) olmalı
         if (request.getRoomId() == null && request.getEquipmentId() == null) {
             throw new InvalidOperationException("En az bir oda veya ekipman seçilmelidir");
         }
 
-        Room room = null;
-        Equipment equipment = null;
-
         // Room kontrolü
         if (request.getRoomId() != null) {
-            room = roomRepository.findById(request.getRoomId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Oda bulunamadı: " + request.getRoomId()));
-            
-            // Oda durumu kontrolü
-            if (room.getStatus() == RoomStatus.MAINTENANCE) {
-                throw new InvalidOperationException("Bu oda şu anda bakımda, rezervasyon yapılamaz");
+            if (!preflight.getRoomExists()) {
+                throw new ResourceNotFoundException("Oda bulunamadı: " + request.getRoomId());
             }
-            if (room.getStatus() == RoomStatus.OCCUPIED) {
-                throw new InvalidOperationException("Bu oda şu anda dolu, rezervasyon yapılamaz");
-            }
-            
+
+            // Oda durumu kontrolü
+            requireBookable(RoomStatus.valueOf(preflight.getRoomStatus()));
+
             // Oda çakışma kontrolü
-            Long roomConflict = reservationRepository.checkRoomConflict(
-                    request.getRoomId(), request.getReservationDate(), request.getTimeSlotId());
-            if (roomConflict > 0) {
+            if (!optimistic
+                    && occupancyIndex.isRoomBooked(request.getRoomId(), date, timeSlotId, preflight::getRoomConflict)) {
                 throw new ReservationConflictException("Bu oda seçilen tarih ve saatte zaten rezerve edilmiş");
             }
         }
 
         // Equipment kontrolü
         if (request.getEquipmentId() != null) {
-            equipment = equipmentRepository.findById(request.getEquipmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Ekipman bulunamadı: " + request.getEquipmentId()));
-            
-            // Ekipman durumu kontrolü
-            if (equipment.getStatus() == EquipmentStatus.MAINTENANCE) {
-                throw new InvalidOperationException("Bu ekipman şu anda bakımda, rezervasyon yapılamaz");
+            if (!preflight.getEquipmentExists()) {
+                throw new ResourceNotFoundException("Ekipman bulunamadı: " + request.getEquipmentId());
             }
-            if (equipment.getStatus() == EquipmentStatus.RESERVED) {
-                throw new InvalidOperationException("Bu ekipman şu anda rezerve edilmiş, rezervasyon yapılamaz");
-            }
-            
+
+            // Ekipman durumu kontrolü
+            requireBookable(EquipmentStatus.valueOf(preflight.getEquipmentStatus()));
+
             // Ekipman çakışma kontrolü
-            Long equipmentConflict = reservationRepository.checkEquipmentConflict(
-                    request.getEquipmentId(), request.getReservationDate(), request.getTimeSlotId());
-            if (equipmentConflict > 0) {
+            if (!optimistic && occupancyIndex.isEquipmentBooked(request.getEquipmentId(), date, timeSlotId,
+                    preflight::getEquipmentConflict)) {
                 throw new ReservationConflictException("Bu ekipman seçilen tarih ve saatte zaten rezerve edilmiş");
             }
         }
 
         // Tarih kontrolü - geçmiş tarih kontrolü
-        if (request.getReservationDate().isBefore(LocalDate.now())) {
+        if (date.isBefore(LocalDate.now())) {
             throw new InvalidOperationException("Geçmiş tarih için rezervasyon yapılamaz");
         }
 
         // Kullanıcının bu tarih ve saatte başka rezervasyonu var mı kontrolü
-        Long userTimeSlotConflict = reservationRepository.checkUserTimeSlotConflict(
-                request.getUserId(), request.getReservationDate(), request.getTimeSlotId());
-        if (userTimeSlotConflict > 0) {
+        if (!optimistic
+                && occupancyIndex.hasUserBooking(request.getUserId(), date, timeSlotId, preflight::getUserConflict)) {
             throw new ReservationConflictException("Bu tarih ve saatte zaten bir rezervasyonunuz var");
         }
 
-        // Kullanıcının aktif rezervasyon sayısı kontrolü
-        Long activeReservationCount = reservationRepository.countActiveReservationsByUserId(
-                request.getUserId(), LocalDate.now(), LocalTime.now());
-        if (activeReservationCount >= maxActiveReservationsPerUser) {
-            throw new MaxReservationLimitException(
-                    "Maksimum " + maxActiveReservationsPerUser + " aktif rezervasyon yapabilirsiniz");
+        // Kullanıcının aktif rezervasyon sayısı kontrolü - kota defteri açıksa bellekten okunur
+        UserRole role = UserRole.valueOf(preflight.getUserRole());
+        int limit = quotaLedger.limitFor(role);
+        long activeCount = quotaLedger.isEnabled()
+                ? quotaLedger.activeCount(request.getUserId())
+                : preflight.getActiveCount();
+        if (activeCount >= limit) {
+            throw new MaxReservationLimitException("Maksimum " + limit + " aktif rezervasyon yapabilirsiniz");
         }
 
         // Süre kontrolü
+        Duration duration = Duration.between(preflight.getSlotStartTime(), preflight.getSlotEndTime());
+        if (duration.toMinutes() < minDurationMinutes) {
+            throw new InvalidOperationException("Rezervasyon süresi en az " + minDurationMinutes + " dakika olmalıdır");
+        }
+        if (duration.toHours() > maxDurationHours) {
+            throw new InvalidOperationException("Rezervasyon süresi en fazla " + maxDurationHours + " saat olabilir");
+        }
+
+        // Rezervasyon oluştur - ilişkiler için sadece referans (proxy) kullanılır, ek SELECT yapılmaz
+        Reservation reservation = new Reservation();
+        reservation.setUser(userRepository.getReferenceById(request.getUserId()));
+        if (request.getRoomId() != null) {
+            reservation.setRoom(roomRepository.getReferenceById(request.getRoomId()));
+        }
+        if (request.getEquipmentId() != null) {
+            reservation.setEquipment(equipmentRepository.getReferenceById(request.getEquipmentId()));
+        }
+        reservation.setTimeSlot(timeSlotRepository.getReferenceById(timeSlotId));
+        reservation.setReservationDate(date);
+        reservation.setStatus(ReservationStatus.BEKLENIYOR);
+
+        Reservation savedReservation;
+        try {
+            savedReservation = optimistic ? insertIfSlotFree(reservation) : reservationRepository.save(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw toReservationConflict(e);
+        }
+        occupancyIndex.onCreated(savedReservation);
+        availabilityEvents.publish(savedReservation, null);
+        if (quotaLedger.isEnabled()) {
+            // Eşzamanlı isteklere karşı limit burada defter kilidi altında tekrar kontrol edilir
+            quotaLedger.acquire(request.getUserId(), role, savedReservation.getReservationId(),
+                    LocalDateTime.of(date, preflight.getSlotEndTime()));
+        }
+        return convertToDTO(savedReservation, request, preflight);
+    }
+
+    /*
+     Optimistic mod eklemesi - tek ifade, ön kontrol sorgusu yok
+     Bekleyen rezervasyon onaylı oda/ekipman kısıtına takılmadığı için bu çakışma NOT EXISTS ile
+     aynı INSERT içinde kontrol edilir, kullanıcı çakışmasını unique index yakalar
+     */
+    private Reservation insertIfSlotFree(Reservation reservation) {
+        Integer roomId = reservation.getRoom() != null ? reservation.getRoom().getRoomId() : null;
+        Integer equipmentId = reservation.getEquipment() != null ? reservation.getEquipment().getEquipmentId() : null;
+        SqlParameterValue room = new SqlParameterValue(Types.INTEGER, roomId);
+        SqlParameterValue equipment = new SqlParameterValue(Types.INTEGER, equipmentId);
+        SqlParameterValue slot = new SqlParameterValue(Types.INTEGER, reservation.getTimeSlot().getTimeSlotId());
+        SqlParameterValue date = new SqlParameterValue(Types.DATE, Date.valueOf(reservation.getReservationDate()));
+
+        Integer id = jdbcTemplate.query(
+                "INSERT INTO reservations (user_id, room_id, equipment_id, time_slot_id, reservation_date, status) " +
+                "SELECT CAST(? AS integer), CAST(? AS integer), CAST(? AS integer), CAST(? AS integer), CAST(? AS date), ? " +
+                "WHERE NOT EXISTS (SELECT 1 FROM reservations c WHERE c.room_id = CAST(? AS integer) " +
+                "  AND c.reservation_date = CAST(? AS date) AND c.time_slot_id = CAST(? AS integer) " +
+                "  AND c.status = 'ONAYLANDI') " +
+                "AND NOT EXISTS (SELECT 1 FROM reservations c WHERE c.equipment_id = CAST(? AS integer) " +
+                "  AND c.reservation_date = CAST(? AS date) AND c.time_slot_id = CAST(? AS integer) " +
+                "  AND c.status = 'ONAYLANDI') " +
+                "RETURNING reservation_id",
+                rs -> rs.next() ? rs.getInt(1) : null,
+                new SqlParameterValue(Types.INTEGER, reservation.getUser().getUserId()), room, equipment, slot, date,
+                reservation.getStatus().name(),
+                room, date, slot,
+                equipment, date, slot);
+
+        if (id == null) {
+            if (equipmentId == null) {
+                throw new ReservationConflictException("Bu oda seçilen tarih ve saatte zaten rezerve edilmiş");
+            }
+            if (roomId == null) {
+                throw new ReservationConflictException("Bu ekipman seçilen tarih ve saatte zaten rezerve edilmiş");
+            }
+            throw new ReservationConflictException("Seçilen oda veya ekipman bu tarih ve saatte zaten rezerve edilmiş");
+        }
+        reservation.setReservationId(id);
+        return reservation;
+    }
+
+    // schema.sql'deki unique index ihlallerini kullanıcıya dönen çakışma mesajına çevirir
+    private RuntimeException toReservationConflict(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains(USER_ACTIVE_SLOT_INDEX)) {
+            return new ReservationConflictException("Bu tarih ve saatte zaten bir rezervasyonunuz var");
+        }
+        if (message.contains(ROOM_CONFIRMED_SLOT_INDEX)) {
+            return new ReservationConflictException("Bu oda seçilen tarih ve saatte zaten rezerve edilmiş");
+        }
+        if (message.contains(EQUIPMENT_CONFIRMED_SLOT_INDEX)) {
+            return new ReservationConflictException("Bu ekipman seçilen tarih ve saatte zaten rezerve edilmiş");
+        }
+        return e;
+    }
+
+    /*
+     Toplu rezervasyon oluşturma (ders için haftalık oda ayırma gibi)
+     Tüm kalemler tek transaction içinde, tekli rezervasyonla aynı kurallarla sırayla doğrulanır
+     Geçerli kalemler JDBC batch ile tek seferde eklenir, her kalem için ayrı sonuç döner
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BatchReservationResult> createReservationsBatch(List<ReservationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidOperationException("En az bir rezervasyon isteği gönderilmelidir");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidOperationException("Tek seferde en fazla " + maxBatchSize + " rezervasyon oluşturulabilir");
+        }
+
+        // Kontrollerden önce istekteki tüm slotları kilitle
+        return bookingLockManager.callWithLocks(lockKeys(requests), () -> createReservationsBatchLocked(requests));
+    }
+
+    private List<BatchReservationResult> createReservationsBatchLocked(List<ReservationRequest> requests) {
+
+        // Referans verileri toplu yükle
+        Map<Integer, User> users = loadById(requests, ReservationRequest::getUserId,
+                userRepository::findAllById, User::getUserId);
+        Map<Integer, TimeSlot> timeSlots = loadById(requests, ReservationRequest::getTimeSlotId,
+                timeSlotRepository::findAllById, TimeSlot::getTimeSlotId);
+        Map<Integer, Room> rooms = loadById(requests, ReservationRequest::getRoomId,
+                roomRepository::findAllById, Room::getRoomId);
+        Map<Integer, Equipment> equipment = loadById(requests, ReservationRequest::getEquipmentId,
+                equipmentRepository::findAllById, Equipment::getEquipmentId);
+
+        Map<Integer, Long> activeCounts = new HashMap<>();
+        if (quotaLedger.isEnabled()) {
+            users.keySet().forEach(userId -> activeCounts.put(userId, (long) quotaLedger.activeCount(userId)));
+        } else if (!users.isEmpty()) {
+            for (Object[] row : reservationRepository.countActiveReservationsByUserIds(
+                    users.keySet(), LocalDate.now(), LocalTime.now())) {
+                activeCounts.put((Integer) row[0], (Long) row[1]);
+            }
+        }
+
+        // İstek içinde kullanıcı slotu çakışması için kabul edilen kalemlerin anahtarları
+        // Yeni kalemler bekleyen olarak eklendiği için oda/ekipman slotu tekli rezervasyondaki gibi sadece
+        // onaylı rezervasyonlarla çakışır; aynı slotu isteyen bekleyenler arasında seçimi admin onayı yapar
+        Set<SlotKey> batchUsers = new HashSet<>();
+
+        BatchReservationResult[] results = new BatchReservationResult[requests.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Reservation> accepted = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequest request = requests.get(i);
+            try {
+                Reservation reservation = validateBatchItem(request, users, timeSlots, rooms, equipment,
+                        activeCounts, batchUsers);
+                acceptedIndexes.add(i);
+                accepted.add(reservation);
+            } catch (ResourceNotFoundException | InvalidOperationException
+                     | ReservationConflictException | MaxReservationLimitException e) {
+                results[i] = BatchReservationResult.failure(i, e.getMessage());
+            }
+        }
+
+        try {
+            insertBatch(accepted);
+        } catch (DataIntegrityViolationException e) {
+            throw toReservationConflict(e);
+        }
+        for (int j = 0; j < accepted.size(); j++) {
+            Reservation reservation = accepted.get(j);
+            occupancyIndex.onCreated(reservation);
+            availabilityEvents.publish(reservation, null);
+            if (quotaLedger.isEnabled()) {
+                quotaLedger.acquire(reservation.getUser().getUserId(), reservation.getUser().getRole(),
+                        reservation.getReservationId(),
+                        LocalDateTime.of(reservation.getReservationDate(), reservation.getTimeSlot().getEndTime()));
+            }
+            results[acceptedIndexes.get(j)] = BatchReservationResult.success(acceptedIndexes.get(j), convertToDTO(reservation));
+        }
+        return List.of(results);
+    }
+
+    private record SlotKey(Integer id, LocalDate date, Integer timeSlotId) {
+    }
+
+    // Saklama süresinin başladığı ayın ilk günü, arşivleme ile aynı sınır
+    private LocalDate historyStart() {
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1);
+    }
+
+    private static void requireBookable(RoomStatus status) {
+        if (!UNBOOKABLE_ROOM_STATUSES.contains(status)) {
+            return;
+        }
+        throw new InvalidOperationException(status == RoomStatus.MAINTENANCE
+                ? "Bu oda şu anda bakımda, rezervasyon yapılamaz"
+                : "Bu oda şu anda dolu, rezervasyon yapılamaz");
+    }
+
+    private static void requireBookable(EquipmentStatus status) {
+        if (!UNBOOKABLE_EQUIPMENT_STATUSES.contains(status)) {
+            return;
+        }
+        throw new InvalidOperationException(status == EquipmentStatus.MAINTENANCE
+                ? "Bu ekipman şu anda bakımda, rezervasyon yapılamaz"
+                : "Bu ekipman şu anda rezerve edilmiş, rezervasyon yapılamaz");
+    }
+
+    private static String sqlList(Set<? extends Enum<?>> statuses) {
+        return statuses.stream().map(status -> "'" + status.name() + "'").collect(Collectors.joining(", "));
+    }
+
+    private static List<Long> lockKeys(List<ReservationRequest> requests) {
+        List<Long> keys = new ArrayList<>();
+        for (ReservationRequest request : requests) {
+            LocalDate date = request.getReservationDate();
+            Integer timeSlotId = request.getTimeSlotId();
+            if (date == null || timeSlotId == null) {
+                continue;
+            }
+            if (request.getUserId() != null) {
+                keys.add(BookingLockManager.key(BookingLockManager.ResourceType.USER, request.getUserId(), date, timeSlotId));
+            }
+            if (request.getRoomId() != null) {
+                keys.add(BookingLockManager.key(BookingLockManager.ResourceType.ROOM, request.getRoomId(), date, timeSlotId));
+            }
+            if (request.getEquipmentId() != null) {
+                keys.add(BookingLockManager.key(BookingLockManager.ResourceType.EQUIPMENT, request.getEquipmentId(), date, timeSlotId));
+            }
+        }
+        return keys;
+    }
+
+    private <T> Map<Integer, T> loadById(List<ReservationRequest> requests, Function<ReservationRequest, Integer> idOf,
+                                         Function<Set<Integer>, List<T>> finder, Function<T, Integer> idOfEntity) {
+        Set<Integer> ids = requests.stream()
+                .map(idOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return finder.apply(ids).stream().collect(Collectors.toMap(idOfEntity, Function.identity()));
+    }
+
+    // Tekli rezervasyon ile aynı kuralları uygular; önceki kalemler aynı kullanıcının ayrı istekleri gibi sayılır
+    private Reservation validateBatchItem(ReservationRequest request, Map<Integer, User> users,
+                                          Map<Integer, TimeSlot> timeSlots, Map<Integer, Room> rooms,
+                                          Map<Integer, Equipment> equipmentById, Map<Integer, Long> activeCounts,
+                                          Set<SlotKey> batchUsers) {
+        Set<ConstraintViolation<ReservationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidOperationException(violations.iterator().next().getMessage());
+        }
+
+        User user = users.get(request.getUserId());
+        if (user == null) {
+            throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + request.getUserId());
+        }
+        TimeSlot timeSlot = timeSlots.get(request.getTimeSlotId());
+        if (timeSlot == null) {
+            throw new ResourceNotFoundException("Zaman dilimi bulunamadı: " + request.getTimeSlotId());
+        }
+        if (request.getRoomId() == null && request.getEquipmentId() == null) {
+            throw new InvalidOperationException("En az bir oda veya ekipman seçilmelidir");
+        }
+
+        LocalDate date = request.getReservationDate();
+        Integer timeSlotId = request.getTimeSlotId();
+        SlotKey userKey = new SlotKey(user.getUserId(), date, timeSlotId);
+
+        Room room = null;
+        if (request.getRoomId() != null) {
+            room = rooms.get(request.getRoomId());
+            if (room == null) {
+                throw new ResourceNotFoundException("Oda bulunamadı: " + request.getRoomId());
+            }
+            requireBookable(room.getStatus());
+            if (occupancyIndex.isRoomBooked(room.getRoomId(), date, timeSlotId)) {
+                throw new ReservationConflictException("Bu oda seçilen tarih ve saatte zaten rezerve edilmiş");
+            }
+        }
+
+        Equipment equipment = null;
+        if (request.getEquipmentId() != null) {
+            equipment = equipmentById.get(request.getEquipmentId());
+            if (equipment == null) {
+                throw new ResourceNotFoundException("Ekipman bulunamadı: " + request.getEquipmentId());
+            }
+            requireBookable(equipment.getStatus());
+            if (occupancyIndex.isEquipmentBooked(equipment.getEquipmentId(), date, timeSlotId)) {
+                throw new ReservationConflictException("Bu ekipman seçilen tarih ve saatte zaten rezerve edilmiş");
+            }
+        }
+
+        if (date.isBefore(LocalDate.now())) {
+            throw new InvalidOperationException("Geçmiş tarih için rezervasyon yapılamaz");
+        }
+
+        if (batchUsers.contains(userKey)
+                || occupancyIndex.hasUserBooking(user.getUserId(), date, timeSlotId)) {
+            throw new ReservationConflictException("Bu tarih ve saatte zaten bir rezervasyonunuz var");
+        }
+
+        long activeCount = activeCounts.getOrDefault(user.getUserId(), 0L);
+        int limit = quotaLedger.limitFor(user.getRole());
+        if (activeCount >= limit) {
+            throw new MaxReservationLimitException("Maksimum " + limit + " aktif rezervasyon yapabilirsiniz");
+        }
+
         Duration duration = Duration.between(timeSlot.getStartTime(), timeSlot.getEndTime());
         if (duration.toMinutes() < minDurationMinutes) {
             throw new InvalidOperationException("Rezervasyon süresi en az " + minDurationMinutes + " dakika olmalıdır");
@@ -146,17 +522,57 @@ public class ReservationService {
             throw new InvalidOperationException("Rezervasyon süresi en fazla " + maxDurationHours + " saat olabilir");
         }
 
-        // Rezervasyon oluştur
+        // Kalem kabul edildi - sonraki kalemler için istek içi durumu güncelle
+        batchUsers.add(userKey);
+        activeCounts.put(user.getUserId(), activeCount + 1);
+
         Reservation reservation = new Reservation();
         reservation.setUser(user);
         reservation.setRoom(room);
         reservation.setEquipment(equipment);
         reservation.setTimeSlot(timeSlot);
-        reservation.setReservationDate(request.getReservationDate());
+        reservation.setReservationDate(date);
         reservation.setStatus(ReservationStatus.BEKLENIYOR);
+        return reservation;
+    }
 
-        Reservation savedReservation = reservationRepository.save(reservation);
-        return convertToDTO(savedReservation);
+    /*
+     IDENTITY ID üretimi Hibernate insert batching'i devre dışı bıraktığı için
+     ekleme JdbcTemplate batch ile yapılır, üretilen ID'ler geri okunur
+     */
+    private void insertBatch(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO reservations (user_id, room_id, equipment_id, time_slot_id, reservation_date, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                        new String[] {"reservation_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation reservation = reservations.get(i);
+                        ps.setInt(1, reservation.getUser().getUserId());
+                        ps.setObject(2, reservation.getRoom() != null ? reservation.getRoom().getRoomId() : null, Types.INTEGER);
+                        ps.setObject(3, reservation.getEquipment() != null ? reservation.getEquipment().getEquipmentId() : null, Types.INTEGER);
+                        ps.setInt(4, reservation.getTimeSlot().getTimeSlotId());
+                        ps.setObject(5, reservation.getReservationDate());
+                        ps.setString(6, reservation.getStatus().name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return reservations.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setReservationId(((Number) keys.get(i).get("reservation_id")).intValue());
+        }
     }
 
     @Transactional(readOnly = true)
@@ -166,19 +582,63 @@ public class ReservationService {
         return convertToDTO(reservation);
     }
 
+    /*
+     Filtrelenebilir, keyset (cursor) sayfalı rezervasyon listesi
+     Sıralama (reservation_date, reservation_id) azalan; OFFSET kullanılmadığı için her sayfa aynı maliyettedir
+     İlişkiler entity graph ile aynı sorguda yüklenir
+     */
     @Transactional(readOnly = true)
-    public List<ReservationDTO> getAllReservations() {
-        return reservationRepository.findAll().stream()
+    public ReservationPage queryReservations(ReservationQuery query) {
+        int size = query.getSize() != null ? query.getSize() : defaultPageSize;
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidOperationException("Sayfa boyutu 1 ile " + maxPageSize + " arasında olmalıdır");
+        }
+        if (query.getFromDate() != null && query.getToDate() != null
+                && query.getFromDate().isAfter(query.getToDate())) {
+            throw new InvalidOperationException("Başlangıç tarihi bitiş tarihinden sonra olamaz");
+        }
+
+        LocalDate afterDate = null;
+        Integer afterId = null;
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(query.getCursor()), StandardCharsets.UTF_8)
+                        .split(":");
+                afterDate = LocalDate.parse(parts[0]);
+                afterId = Integer.valueOf(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidOperationException("Geçersiz sayfa imleci (cursor)");
+            }
+        }
+
+        List<Reservation> rows = reservationRepository.findBy(
+                ReservationSpecifications.matching(query, afterDate, afterId),
+                q -> q.sortBy(KEYSET_ORDER)
+                        .project("user", "room", "equipment", "timeSlot")
+                        .limit(size + 1)
+                        .all());
+
+        boolean hasMore = rows.size() > size;
+        List<Reservation> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Reservation last = page.get(page.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getReservationDate() + ":" + last.getReservationId()).getBytes(StandardCharsets.UTF_8));
+        }
+        List<ReservationDTO> items = page.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return new ReservationPage(items, nextCursor, hasMore);
     }
 
     @Transactional(readOnly = true)
-    public List<ReservationDTO> getReservationsByUserId(Integer userId) {
+    public List<ReservationDTO> getReservationsByUserId(Integer userId, LocalDate fromDate) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId);
         }
-        return reservationRepository.findByUserUserId(userId).stream()
+        LocalDate from = fromDate != null ? fromDate : historyStart();
+        return reservationRepository.findByUserUserId(userId, from).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -222,8 +682,18 @@ public class ReservationService {
             throw new InvalidOperationException("Sadece bekleyen rezervasyonlar onaylanabilir");
         }
 
+        ReservationStatus previousStatus = reservation.getStatus();
         reservation.confirm();
-        Reservation updatedReservation = reservationRepository.save(reservation);
+        Reservation updatedReservation;
+        try {
+            // Onaylı slot kısıtı ihlali commit'te değil burada yakalansın diye hemen flush edilir
+            updatedReservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw toReservationConflict(e);
+        }
+        occupancyIndex.onStatusChanged(updatedReservation, previousStatus);
+        evictAvailability(updatedReservation, previousStatus);
+        availabilityEvents.publish(updatedReservation, previousStatus);
         return convertToDTO(updatedReservation);
     }
 
@@ -234,6 +704,9 @@ public class ReservationService {
         if (reservation.getStatus() == ReservationStatus.IPTAL_EDILDI) {
             throw new InvalidOperationException("Bu rezervasyon zaten iptal edilmiş");
         }
+        if (reservation.getStatus() == ReservationStatus.SURESI_DOLDU) {
+            throw new InvalidOperationException("Süresi dolmuş rezervasyon iptal edilemez");
+        }
 
         // İptal süresi kontrolü
         LocalDateTime reservationDateTime = LocalDateTime.of(
@@ -247,8 +720,13 @@ public class ReservationService {
                     "Rezervasyon başlangıç saatinden en az " + minCancellationHours + " saat önce iptal edilmelidir");
         }
 
+        ReservationStatus previousStatus = reservation.getStatus();
         reservation.cancel();
         Reservation updatedReservation = reservationRepository.save(reservation);
+        occupancyIndex.onStatusChanged(updatedReservation, previousStatus);
+        quotaLedger.release(updatedReservation.getUser().getUserId(), updatedReservation.getReservationId());
+        evictAvailability(updatedReservation, previousStatus);
+        availabilityEvents.publish(updatedReservation, previousStatus);
         return convertToDTO(updatedReservation);
     }
 
@@ -260,17 +738,57 @@ public class ReservationService {
         if (reservation.getStatus() == ReservationStatus.IPTAL_EDILDI) {
             throw new InvalidOperationException("Bu rezervasyon zaten iptal edilmiş");
         }
+        if (reservation.getStatus() == ReservationStatus.SURESI_DOLDU) {
+            throw new InvalidOperationException("Süresi dolmuş rezervasyon iptal edilemez");
+        }
 
+        ReservationStatus previousStatus = reservation.getStatus();
         reservation.cancel();
         Reservation updatedReservation = reservationRepository.save(reservation);
+        occupancyIndex.onStatusChanged(updatedReservation, previousStatus);
+        quotaLedger.release(updatedReservation.getUser().getUserId(), updatedReservation.getReservationId());
+        evictAvailability(updatedReservation, previousStatus);
+        availabilityEvents.publish(updatedReservation, previousStatus);
         return convertToDTO(updatedReservation);
     }
 
     public void deleteReservation(Integer reservationId) {
-        if (!reservationRepository.existsById(reservationId)) {
-            throw new ResourceNotFoundException("Rezervasyon bulunamadı: " + reservationId);
+        Reservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rezervasyon bulunamadı: " + reservationId));
+        reservationRepository.delete(reservation);
+        occupancyIndex.onDeleted(reservation);
+        quotaLedger.release(reservation.getUser().getUserId(), reservation.getReservationId());
+        evictAvailability(reservation, reservation.getStatus());
+        availabilityEvents.publishRemoved(reservation);
+    }
+
+    // Müsaitlik listeleri sadece onaylı rezervasyonlara bakar, diğer geçişler önbelleği etkilemez
+    private void evictAvailability(Reservation reservation, ReservationStatus previousStatus) {
+        if (previousStatus == ReservationStatus.ONAYLANDI || reservation.getStatus() == ReservationStatus.ONAYLANDI) {
+            availabilityCache.evict(reservation.getReservationDate(), reservation.getTimeSlot().getTimeSlotId());
+        }
+    }
+
+    // Yeni oluşturulan rezervasyon için - proxy'leri başlatmamak adına ön kontrol verisi kullanılır
+    private ReservationDTO convertToDTO(Reservation reservation, ReservationRequest request,
+                                        BookingPreflightView preflight) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setReservationId(reservation.getReservationId());
+        dto.setUser(new UserDTO(request.getUserId(), preflight.getUserName(), preflight.getUserEmail(),
+                UserRole.valueOf(preflight.getUserRole())));
+        if (request.getRoomId() != null) {
+            dto.setRoom(new RoomDTO(request.getRoomId(), preflight.getRoomName(), preflight.getRoomCapacity(),
+                    RoomStatus.valueOf(preflight.getRoomStatus())));
         }
-        reservationRepository.deleteById(reservationId);
+        if (request.getEquipmentId() != null) {
+            dto.setEquipment(new EquipmentDTO(request.getEquipmentId(), preflight.getEquipmentName(),
+                    preflight.getEquipmentType(), EquipmentStatus.valueOf(preflight.getEquipmentStatus())));
+        }
+        dto.setTimeSlot(new TimeSlotDTO(request.getTimeSlotId(), preflight.getSlotStartTime(),
+                preflight.getSlotEndTime()));
+        dto.setReservationDate(reservation.getReservationDate());
+        dto.setStatus(reservation.getStatus());
+        return dto;
     }
 
     private ReservationDTO convertToDTO(Reservation reservation) {
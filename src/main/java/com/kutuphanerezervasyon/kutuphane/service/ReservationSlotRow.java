@@ -0,0 +1,35 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+
+// JDBC ile okunan (SELECT/UPDATE ... RETURNING) rezervasyon satırı
+@Getter
+@AllArgsConstructor
+final class ReservationSlotRow implements ReservationSlotView {
+
+    static final String COLUMNS =
+            "reservation_id, user_id, room_id, equipment_id, time_slot_id, reservation_date, status";
+
+    static final RowMapper<ReservationSlotRow> MAPPER = (rs, rowNum) -> new ReservationSlotRow(
+            rs.getInt("reservation_id"),
+            rs.getInt("user_id"),
+            (Integer) rs.getObject("room_id"),
+            (Integer) rs.getObject("equipment_id"),
+            rs.getInt("time_slot_id"),
+            rs.getDate("reservation_date").toLocalDate(),
+            ReservationStatus.valueOf(rs.getString("status")));
+
+    private final Integer reservationId;
+    private final Integer userId;
+    private final Integer roomId;
+    private final Integer equipmentId;
+    private final Integer timeSlotId;
+    private final LocalDate reservationDate;
+    private final ReservationStatus status;
+}
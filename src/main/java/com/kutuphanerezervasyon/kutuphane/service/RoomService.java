@@ -1,12 +1,21 @@
 package com.kutuphanerezervasyon.kutuphane.service;
 
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent.Resource;
 import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.entity.Room;
 import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
 import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
 import com.kutuphanerezervasyon.kutuphane.repository.RoomRepository;
+import com.kutuphanerezervasyon.kutuphane.service.AutocompleteIndex.Kind;
+import com.kutuphanerezervasyon.kutuphane.service.AvailabilityCache.SlotKey;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -22,7 +31,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class RoomService {
 
+    public static final String AVAILABLE_ROOMS_CACHE = "availableRooms";
+
     private final RoomRepository roomRepository;
+    private final AvailabilityCache availabilityCache;
+    private final SearchService searchService;
+    private final AutocompleteIndex autocompleteIndex;
+    private final CatalogVersions catalogVersions;
+    private final AvailabilityEventStream availabilityEvents;
+
+    private LoadingCache<SlotKey, List<RoomDTO>> availableRoomsCache;
+
+    @PostConstruct
+    void initCache() {
+        availableRoomsCache = availabilityCache.create(AVAILABLE_ROOMS_CACHE,
+                key -> loadAvailableRooms(key.date(), key.timeSlotId()));
+    }
 
     public RoomDTO createRoom(RoomDTO roomDTO) {
         Room room = new Room();
@@ -31,6 +55,9 @@ public class RoomService {
         room.setStatus(roomDTO.getStatus() != null ? roomDTO.getStatus() : RoomStatus.EMPTY);
 
         Room savedRoom = roomRepository.save(room);
+        availabilityCache.evictAll(AVAILABLE_ROOMS_CACHE);
+        catalogVersions.bump(Catalog.ROOMS);
+        autocompleteIndex.onSaved(Kind.ROOMS, savedRoom.getRoomId(), savedRoom.getName(), null);
         return convertToDTO(savedRoom);
     }
 
@@ -63,17 +90,29 @@ public class RoomService {
     }
 
     @Transactional(readOnly = true)
-    public List<RoomDTO> searchRoomsByName(String keyword) {
-        return roomRepository.searchByName(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public SearchResult<RoomDTO> searchRoomsByName(String keyword) {
+        return searchService.searchRooms(keyword);
+    }
+
+    // Bellekteki indeksten cevaplanır, transaction (ve bağlantı) açılmaz
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AutocompleteItem> autocompleteRooms(String prefix, Integer limit) {
+        return autocompleteIndex.complete(Kind.ROOMS, prefix, limit);
     }
 
     @Transactional(readOnly = true)
     public List<RoomDTO> getAvailableRooms(LocalDate date, Integer timeSlotId) {
+        if (!availabilityCache.isEnabled()) {
+            return loadAvailableRooms(date, timeSlotId);
+        }
+        return availableRoomsCache.get(new SlotKey(date, timeSlotId));
+    }
+
+    // Önbellekteki liste paylaşıldığı için değiştirilemez döner
+    private List<RoomDTO> loadAvailableRooms(LocalDate date, Integer timeSlotId) {
         return roomRepository.findAvailableRooms(date, timeSlotId).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .toList();
     }
 
     public RoomDTO updateRoom(Integer roomId, RoomDTO roomDTO) {
@@ -86,11 +125,18 @@ public class RoomService {
         if (roomDTO.getCapacity() != null) {
             room.setCapacity(roomDTO.getCapacity());
         }
+        RoomStatus previousStatus = room.getStatus();
         if (roomDTO.getStatus() != null) {
             room.setStatus(roomDTO.getStatus());
         }
 
         Room updatedRoom = roomRepository.save(room);
+        availabilityCache.evictAll(AVAILABLE_ROOMS_CACHE);
+        catalogVersions.bump(Catalog.ROOMS);
+        autocompleteIndex.onSaved(Kind.ROOMS, roomId, updatedRoom.getName(), null);
+        if (updatedRoom.getStatus() != previousStatus) {
+            availabilityEvents.publishStatus(Resource.ROOM, roomId, updatedRoom.getStatus());
+        }
         return convertToDTO(updatedRoom);
     }
 
@@ -98,8 +144,14 @@ public class RoomService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new ResourceNotFoundException("Oda bulunamadı: " + roomId));
         
+        RoomStatus previousStatus = room.getStatus();
         room.setStatus(status);
         Room updatedRoom = roomRepository.save(room);
+        availabilityCache.evictAll(AVAILABLE_ROOMS_CACHE);
+        catalogVersions.bump(Catalog.ROOMS);
+        if (status != previousStatus) {
+            availabilityEvents.publishStatus(Resource.ROOM, roomId, status);
+        }
         return convertToDTO(updatedRoom);
     }
 
@@ -108,6 +160,9 @@ public class RoomService {
             throw new ResourceNotFoundException("Oda bulunamadı: " + roomId);
         }
         roomRepository.deleteById(roomId);
+        availabilityCache.evictAll(AVAILABLE_ROOMS_CACHE);
+        catalogVersions.bump(Catalog.ROOMS);
+        autocompleteIndex.onDeleted(Kind.ROOMS, roomId);
     }
 
     private RoomDTO convertToDTO(Room room) {
@@ -0,0 +1,200 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.EquipmentDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
+import com.kutuphanerezervasyon.kutuphane.dto.UserDTO;
+import com.kutuphanerezervasyon.kutuphane.enums.EquipmentStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ Oda, ekipman ve kullanıcı araması
+ Metinler search_fold() ile katlanır (büyük/küçük harf ve Türkçe karakter duyarsız: İ/I/ı -> i, ş -> s, ğ -> g ...)
+ pg_trgm kuruluysa katlanmış kolonlar üzerindeki GIN trigram indeksleri LIKE '%...%' aramasını indeksten cevaplar
+ ve sonuçlar word_similarity ile sıralanır; kurulamazsa aynı sorgu indekssiz çalışır, eşleşme konumuna göre sıralanır
+ Her iki durumda da önce metnin başıyla, sonra bir kelimenin başıyla (boşluktan sonra) eşleşenler gelir
+ En fazla max-results satır döner; daha fazla eşleşme varsa sonuçta hasMore işaretlenir
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    // schema.sql içindeki search_fold() ile aynı eşleme
+    private static final String FOLD_FROM = "İIıŞşĞğÇçÖöÜüÂâÎîÛû";
+    private static final String FOLD_TO = "iiissggccoouuaaiiuu";
+
+    private static final Map<String, String> TRIGRAM_INDEXES = Map.of(
+            "ix_rooms_name_trgm", "rooms USING gin (search_fold(name) gin_trgm_ops)",
+            "ix_equipment_name_trgm", "equipment USING gin (search_fold(name) gin_trgm_ops)",
+            "ix_equipment_type_trgm", "equipment USING gin (search_fold(type) gin_trgm_ops)",
+            "ix_users_name_trgm", "users USING gin (search_fold(name) gin_trgm_ops)",
+            "ix_users_email_trgm", "users USING gin (search_fold(email) gin_trgm_ops)");
+
+    private static final RowMapper<RoomDTO> ROOM_MAPPER = (rs, rowNum) -> new RoomDTO(
+            rs.getInt("room_id"), rs.getString("name"), (Integer) rs.getObject("capacity"),
+            enumOf(RoomStatus.class, rs.getString("status")));
+
+    private static final RowMapper<EquipmentDTO> EQUIPMENT_MAPPER = (rs, rowNum) -> new EquipmentDTO(
+            rs.getInt("equipment_id"), rs.getString("name"), rs.getString("type"),
+            enumOf(EquipmentStatus.class, rs.getString("status")));
+
+    private static final RowMapper<UserDTO> USER_MAPPER = (rs, rowNum) -> new UserDTO(
+            rs.getInt("user_id"), rs.getString("name"), rs.getString("email"),
+            enumOf(UserRole.class, rs.getString("role")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.trigram.enabled:true}")
+    private boolean trigramEnabled;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
+
+    private volatile boolean trigram;
+
+    /*
+     pg_trgm eklentisi ve indeksler açılışta hazırlanır (schema.sql eklenti yetkisi yoksa açılışı durdurmasın diye)
+     İndeksler CONCURRENTLY oluşturulur, büyük users tablosunda yazmalar bloklanmaz
+     Yarıda kalan CONCURRENTLY oluşturma geçersiz (indisvalid = false) bir indeks bırakır; IF NOT EXISTS onu
+     mevcut sayar, bu yüzden geçersiz indeks önce silinip yeniden oluşturulur
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareIndexes() {
+        if (!trigramEnabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            TRIGRAM_INDEXES.forEach(this::createIndex);
+            trigram = true;
+        } catch (DataAccessException e) {
+            log.warn("pg_trgm kullanılamıyor, arama indekssiz çalışacak: {}", e.getMessage());
+            trigram = false;
+        }
+    }
+
+    private void createIndex(String name, String definition) {
+        if (Boolean.FALSE.equals(isValid(name))) {
+            log.warn("Geçersiz arama indeksi {} yeniden oluşturuluyor", name);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + definition);
+        if (!Boolean.TRUE.equals(isValid(name))) {
+            // Arama yine çalışır, sadece bu kolon için indeks kullanılmaz; sonraki açılışta tekrar denenir
+            log.warn("Arama indeksi {} geçerli değil", name);
+        }
+    }
+
+    // İndeks yoksa null
+    private Boolean isValid(String indexName) {
+        List<Boolean> rows = jdbcTemplate.queryForList(
+                "SELECT i.indisvalid FROM pg_index i WHERE i.indexrelid = to_regclass(?)", Boolean.class, indexName);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    public SearchResult<RoomDTO> searchRooms(String keyword) {
+        return search("SELECT room_id, name, capacity, status FROM rooms", List.of("name"), "room_id",
+                keyword, ROOM_MAPPER);
+    }
+
+    public SearchResult<EquipmentDTO> searchEquipment(String keyword) {
+        return search("SELECT equipment_id, name, type, status FROM equipment", List.of("name", "type"),
+                "equipment_id", keyword, EQUIPMENT_MAPPER);
+    }
+
+    public SearchResult<UserDTO> searchUsers(String keyword) {
+        return search("SELECT user_id, name, email, role FROM users", List.of("name", "email"), "user_id",
+                keyword, USER_MAPPER);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trigramEnabled", trigramEnabled);
+        stats.put("trigramIndexes", trigram);
+        stats.put("maxResults", maxResults);
+        return stats;
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            int index = FOLD_FROM.indexOf(chars[i]);
+            if (index >= 0) {
+                chars[i] = FOLD_TO.charAt(index);
+            }
+        }
+        return new String(chars).toLowerCase(Locale.ROOT);
+    }
+
+    private <T> SearchResult<T> search(String select, List<String> columns, String idColumn, String keyword,
+                                       RowMapper<T> mapper) {
+        String query = keyword == null ? "" : fold(keyword.trim());
+        if (query.isEmpty()) {
+            return new SearchResult<>(List.of(), false, maxResults);
+        }
+        String escaped = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        List<Object> args = new ArrayList<>();
+        List<String> matches = new ArrayList<>();
+        List<String> ranks = new ArrayList<>();
+        List<String> scores = new ArrayList<>();
+        for (String column : columns) {
+            matches.add("search_fold(" + column + ") LIKE ? ESCAPE '\\'");
+            args.add("%" + escaped + "%");
+        }
+        // 0: metnin başı, 1: bir kelimenin başı, 2: kelime içi
+        for (String column : columns) {
+            ranks.add("CASE WHEN search_fold(" + column + ") LIKE ? ESCAPE '\\' THEN 0"
+                    + " WHEN search_fold(" + column + ") LIKE ? ESCAPE '\\' THEN 1 ELSE 2 END");
+            args.add(escaped + "%");
+            args.add("% " + escaped + "%");
+        }
+        for (String column : columns) {
+            if (trigram) {
+                scores.add("word_similarity(?, search_fold(" + column + "))");
+            } else {
+                scores.add("NULLIF(position(? IN search_fold(" + column + ")), 0)");
+            }
+            args.add(query);
+        }
+        // Bir fazla satır okunur, sınırın aşıldığı bu satırla anlaşılır
+        args.add(maxResults + 1);
+
+        // Kolonlardan en iyi eşleşen belirler: sırada en küçük, benzerlikte en yüksek, konumda en küçük değer
+        String rank = ranks.size() == 1 ? ranks.get(0) : "LEAST(" + String.join(", ", ranks) + ")";
+        String score = scores.size() == 1 ? scores.get(0)
+                : (trigram ? "GREATEST(" : "LEAST(") + String.join(", ", scores) + ")";
+        String sql = select
+                + " WHERE " + String.join(" OR ", matches)
+                + " ORDER BY " + rank + ", "
+                + score + (trigram ? " DESC NULLS LAST" : " ASC") + ", " + columns.get(0) + ", " + idColumn
+                + " LIMIT ?";
+        List<T> rows = jdbcTemplate.query(sql, mapper, args.toArray());
+        boolean hasMore = rows.size() > maxResults;
+        return new SearchResult<>(hasMore ? List.copyOf(rows.subList(0, maxResults)) : rows, hasMore, maxResults);
+    }
+
+    private static <E extends Enum<E>> E enumOf(Class<E> type, String value) {
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ (kaynak, tarih) anahtarı başına dolu zaman dilimlerini tutan bitset
+ Her anahtar için long[] dizisi, bit numarası zaman dilimi ID'sidir
+ Diziler kopyalanarak güncellenir, okuyucular kilitsiz okur
+ */
+final class SlotBitmap {
+
+    private final ConcurrentHashMap<Long, long[]> bits = new ConcurrentHashMap<>();
+
+    static long key(int resourceId, LocalDate date) {
+        return ((long) resourceId << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    boolean contains(int resourceId, LocalDate date, int slot) {
+        long[] words = bits.get(key(resourceId, date));
+        int index = slot >>> 6;
+        return words != null && index < words.length && (words[index] & (1L << slot)) != 0;
+    }
+
+    // Bit daha önce set edilmemişse set eder ve true döner
+    boolean set(int resourceId, LocalDate date, int slot) {
+        boolean[] changed = new boolean[1];
+        bits.compute(key(resourceId, date), (k, words) -> {
+            int index = slot >>> 6;
+            long mask = 1L << slot;
+            if (words != null && index < words.length && (words[index] & mask) != 0) {
+                return words;
+            }
+            long[] copy = words == null
+                    ? new long[index + 1]
+                    : Arrays.copyOf(words, Math.max(words.length, index + 1));
+            copy[index] |= mask;
+            changed[0] = true;
+            return copy;
+        });
+        return changed[0];
+    }
+
+    // Bit set edilmişse temizler ve true döner, boşalan anahtar silinir
+    boolean clear(int resourceId, LocalDate date, int slot) {
+        boolean[] changed = new boolean[1];
+        bits.computeIfPresent(key(resourceId, date), (k, words) -> {
+            int index = slot >>> 6;
+            long mask = 1L << slot;
+            if (index >= words.length || (words[index] & mask) == 0) {
+                return words;
+            }
+            long[] copy = words.clone();
+            copy[index] &= ~mask;
+            changed[0] = true;
+            for (long word : copy) {
+                if (word != 0) {
+                    return copy;
+                }
+            }
+            return null;
+        });
+        return changed[0];
+    }
+
+    int size() {
+        return bits.size();
+    }
+}
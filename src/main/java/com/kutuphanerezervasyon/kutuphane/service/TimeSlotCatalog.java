@@ -0,0 +1,190 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.TimeSlotDTO;
+import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
+import com.kutuphanerezervasyon.kutuphane.repository.TimeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/*
+ Zaman dilimlerinin bellek içi, başlangıç saatine göre sıralı ve değiştirilemez kopyası
+ Okumalar kilitsizdir; her değişiklikte yeni kopya oluşturulup tek seferde yerine konur (copy-on-write)
+ Aralık sorguları ve çakışma kontrolü başlangıç saatleri üzerinde ikili arama ile yapılır
+ Kopya sadece commit edilmiş satırları içerir: açılışta yüklenir, yazmalar commit'ten sonra (CatalogVersions gibi)
+ uygulanır ve servis dışından yapılan değişiklikler için belirli aralıklarla veritabanından yeniden yüklenir
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimeSlotCatalog implements SmartInitializingSingleton {
+
+    private final TimeSlotRepository timeSlotRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+    private record Slot(Integer id, LocalTime start, LocalTime end) {
+        TimeSlotDTO toDTO() {
+            return new TimeSlotDTO(id, start, end);
+        }
+    }
+
+    /*
+     starts[i] = slots[i].start (ikili arama için)
+     maxEnds[i] = slots[0..i] içindeki en geç bitiş; eski veride iç içe dilimler olsa da
+     önceki dilimlerle çakışma tek karşılaştırmayla bulunur
+     */
+    private record Snapshot(List<Slot> slots, LocalTime[] starts, LocalTime[] maxEnds, Map<Integer, Slot> byId) {
+
+        static Snapshot of(List<Slot> unsorted) {
+            List<Slot> slots = new ArrayList<>(unsorted);
+            slots.sort(Comparator.comparing(Slot::start).thenComparing(Slot::end).thenComparing(Slot::id));
+            LocalTime[] starts = new LocalTime[slots.size()];
+            LocalTime[] maxEnds = new LocalTime[slots.size()];
+            Map<Integer, Slot> byId = new HashMap<>();
+            for (int i = 0; i < slots.size(); i++) {
+                Slot slot = slots.get(i);
+                starts[i] = slot.start();
+                maxEnds[i] = i == 0 || slot.end().isAfter(maxEnds[i - 1]) ? slot.end() : maxEnds[i - 1];
+                byId.put(slot.id(), slot);
+            }
+            return new Snapshot(List.copyOf(slots), starts, maxEnds, Map.copyOf(byId));
+        }
+
+        // start'tan büyük veya eşit ilk başlangıç saatinin indeksi
+        int lowerBound(LocalTime start) {
+            int index = Arrays.binarySearch(starts, start);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && starts[index - 1].equals(start)) {
+                index--;
+            }
+            return index;
+        }
+    }
+
+    public List<TimeSlotDTO> findAll() {
+        return current().slots().stream().map(Slot::toDTO).toList();
+    }
+
+    public Optional<TimeSlotDTO> findById(Integer timeSlotId) {
+        return Optional.ofNullable(current().byId().get(timeSlotId)).map(Slot::toDTO);
+    }
+
+    // startTime'dan önce başlamayan ve endTime'dan sonra bitmeyen dilimler
+    public List<TimeSlotDTO> findInRange(LocalTime startTime, LocalTime endTime) {
+        Snapshot current = current();
+        List<TimeSlotDTO> result = new ArrayList<>();
+        for (int i = current.lowerBound(startTime); i < current.slots().size(); i++) {
+            Slot slot = current.slots().get(i);
+            if (slot.start().isAfter(endTime)) {
+                break;
+            }
+            if (!slot.end().isAfter(endTime)) {
+                result.add(slot.toDTO());
+            }
+        }
+        return result;
+    }
+
+    // [startTime, endTime) ile kesişen ilk dilim - bitişik dilimler (10:00-11:00 ve 11:00-12:00) çakışmaz
+    public Optional<TimeSlotDTO> findOverlapping(LocalTime startTime, LocalTime endTime) {
+        Snapshot current = current();
+        int index = current.lowerBound(startTime);
+        if (index > 0 && current.maxEnds()[index - 1].isAfter(startTime)) {
+            // En geç biten önceki dilim doğrusal aranır, sadece hata mesajı için
+            for (int i = index - 1; i >= 0; i--) {
+                if (current.slots().get(i).end().isAfter(startTime)) {
+                    return Optional.of(current.slots().get(i).toDTO());
+                }
+            }
+        }
+        if (index < current.slots().size() && current.starts()[index].isBefore(endTime)) {
+            return Optional.of(current.slots().get(index).toDTO());
+        }
+        return Optional.empty();
+    }
+
+    // ========== GÜNCELLEMELER ==========
+
+    /*
+     Değişiklik transaction commit edildikten sonra kopyaya uygulanır; rollback'te hiç uygulanmaz
+     Commit'e kadar aynı transaction'daki kontroller de commit edilmiş kopyayı görür
+     */
+    public void onSaved(TimeSlot timeSlot) {
+        Slot slot = new Slot(timeSlot.getTimeSlotId(), timeSlot.getStartTime(), timeSlot.getEndTime());
+        afterCommit(slots -> {
+            slots.removeIf(existing -> existing.id().equals(slot.id()));
+            slots.add(slot);
+        });
+    }
+
+    public void onDeleted(Integer timeSlotId) {
+        afterCommit(slots -> slots.removeIf(existing -> existing.id().equals(timeSlotId)));
+    }
+
+    // Açılışta, henüz istek gelmeden; veriler hazırlandıktan sonra bir kez daha ve belirli aralıklarla tekrar
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.timeslot.catalog.reload-interval-ms:300000}",
+            fixedDelayString = "${app.timeslot.catalog.reload-interval-ms:300000}")
+    public void onReloadTick() {
+        reload();
+    }
+
+    /*
+     Çağıranın transaction'ı dışında çalıştırılmalıdır (açılış, zamanlayıcı); commit edilmiş satırları okur
+     Okuma kilit altında yapılır: yükleme sürerken commit edilen bir değişiklik yüklemeden sonra uygulanır
+     */
+    public synchronized void reload() {
+        List<Slot> slots = timeSlotRepository.findAll().stream()
+                .map(ts -> new Slot(ts.getTimeSlotId(), ts.getStartTime(), ts.getEndTime()))
+                .toList();
+        snapshot = Snapshot.of(slots);
+        log.debug("Zaman dilimi kataloğu yüklendi: {} dilim", slots.size());
+    }
+
+    private void afterCommit(Consumer<List<Slot>> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<List<Slot>> change) {
+        List<Slot> slots = new ArrayList<>(snapshot.slots());
+        change.accept(slots);
+        snapshot = Snapshot.of(slots);
+    }
+
+    private Snapshot current() {
+        return snapshot;
+    }
+}
@@ -5,13 +5,13 @@ import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
 import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
 import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
 import com.kutuphanerezervasyon.kutuphane.repository.TimeSlotRepository;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /*
  Zaman dilimi yönetimi servis katmanı
@@ -23,6 +23,8 @@ import java.util.stream.Collectors;
 public class TimeSlotService {
 
     private final TimeSlotRepository timeSlotRepository;
+    private final TimeSlotCatalog timeSlotCatalog;
+    private final CatalogVersions catalogVersions;
 
     public TimeSlotDTO createTimeSlot(TimeSlotDTO timeSlotDTO) {
         // Zaman kontrolü
@@ -35,38 +37,38 @@ public class TimeSlotService {
             throw new InvalidOperationException("Başlangıç saati bitiş saatinden önce olmalıdır");
         }
 
-        // Aynı zaman dilimi var mı kontrol et
-        if (timeSlotRepository.findByStartTimeAndEndTime(timeSlotDTO.getStartTime(), timeSlotDTO.getEndTime()).isPresent()) {
-            throw new InvalidOperationException("Bu zaman dilimi zaten mevcut");
-        }
+        // Mevcut bir dilimle çakışıyor mu (aynı dilim de çakışma sayılır) - katalogda ikili arama
+        timeSlotCatalog.findOverlapping(timeSlotDTO.getStartTime(), timeSlotDTO.getEndTime())
+                .ifPresent(existing -> {
+                    throw new InvalidOperationException("Bu zaman dilimi mevcut bir dilimle çakışıyor: "
+                            + existing.getStartTime() + "-" + existing.getEndTime());
+                });
 
         TimeSlot timeSlot = new TimeSlot();
         timeSlot.setStartTime(timeSlotDTO.getStartTime());
         timeSlot.setEndTime(timeSlotDTO.getEndTime());
 
         TimeSlot savedTimeSlot = timeSlotRepository.save(timeSlot);
+        timeSlotCatalog.onSaved(savedTimeSlot);
+        catalogVersions.bump(Catalog.TIME_SLOTS);
         return convertToDTO(savedTimeSlot);
     }
 
     @Transactional(readOnly = true)
     public TimeSlotDTO getTimeSlotById(Integer timeSlotId) {
-        TimeSlot timeSlot = timeSlotRepository.findById(timeSlotId)
-                .orElseThrow(() -> new ResourceNotFoundException("Zaman dilimi bulunamadı: " + timeSlotId));
-        return convertToDTO(timeSlot);
+        return timeSlotCatalog.findById(timeSlotId)
+                .orElseGet(() -> convertToDTO(timeSlotRepository.findById(timeSlotId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Zaman dilimi bulunamadı: " + timeSlotId))));
     }
 
     @Transactional(readOnly = true)
     public List<TimeSlotDTO> getAllTimeSlots() {
-        return timeSlotRepository.findAllOrderByStartTime().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return timeSlotCatalog.findAll();
     }
 
     @Transactional(readOnly = true)
     public List<TimeSlotDTO> getTimeSlotsInRange(LocalTime startTime, LocalTime endTime) {
-        return timeSlotRepository.findTimeSlotsInRange(startTime, endTime).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return timeSlotCatalog.findInRange(startTime, endTime);
     }
 
     public TimeSlotDTO updateTimeSlot(Integer timeSlotId, TimeSlotDTO timeSlotDTO) {
@@ -83,6 +85,8 @@ public class TimeSlotService {
         }
 
         TimeSlot updatedTimeSlot = timeSlotRepository.save(timeSlot);
+        timeSlotCatalog.onSaved(updatedTimeSlot);
+        catalogVersions.bump(Catalog.TIME_SLOTS);
         return convertToDTO(updatedTimeSlot);
     }
 
@@ -91,6 +95,8 @@ public class TimeSlotService {
             throw new ResourceNotFoundException("Zaman dilimi bulunamadı: " + timeSlotId);
         }
         timeSlotRepository.deleteById(timeSlotId);
+        timeSlotCatalog.onDeleted(timeSlotId);
+        catalogVersions.bump(Catalog.TIME_SLOTS);
     }
 
     private TimeSlotDTO convertToDTO(TimeSlot timeSlot) {
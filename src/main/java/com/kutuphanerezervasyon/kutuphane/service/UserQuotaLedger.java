@@ -0,0 +1,212 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.exception.MaxReservationLimitException;
+import com.kutuphanerezervasyon.kutuphane.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/*
+ Kullanıcı başına aktif (onaylı/bekleyen, bitmemiş) rezervasyon defteri
+ countActiveReservationsByUserId sorgusunu rezervasyon yolundan kaldırır
+ Kullanıcı ilk kez sorulduğunda veritabanından yüklenir, sonra oluşturma/iptal ile güncellenir
+ Biten rezervasyonlar zamanlayıcı ile düşülür
+ Limit rol bazında tanımlanabilir: app.reservation.max-active-per-role.ADMIN=10
+ Defter sunucu belleğindedir, limit sadece tek sunuculu kurulumda genel olarak uygulanır; çok sunuculu
+ (advisory kilit) kurulumda her sunucu kendi sayacını tutacağı için defter kapatılmalıdır (enabled=false),
+ sayım her rezervasyonda veritabanından yapılır. İkisi birlikte açılırsa uygulama başlamaz
+ */
+@Component
+@RequiredArgsConstructor
+public class UserQuotaLedger {
+
+    private final ReservationRepository reservationRepository;
+    private final Environment environment;
+
+    @Value("${app.reservation.quota-ledger.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reservation.max-active-per-user:2}")
+    private int defaultLimit;
+
+    @Value("${app.reservation.booking-lock.mode:local}")
+    private String bookingLockMode;
+
+    private final Map<Integer, Account> accounts = new ConcurrentHashMap<>();
+
+    // Bitiş zamanına göre sıralı, zamanlayıcı baştan tüketir
+    private final PriorityBlockingQueue<Expiry> expiries =
+            new PriorityBlockingQueue<>(64, Comparator.comparing(Expiry::endsAt));
+
+    private record Expiry(LocalDateTime endsAt, int userId, int reservationId) {
+    }
+
+    // Bir kullanıcının aktif rezervasyonları: rezervasyon ID -> bitiş zamanı
+    private static final class Account {
+        private final Map<Integer, LocalDateTime> active = new HashMap<>();
+        private boolean evicted;
+    }
+
+    @PostConstruct
+    void checkSingleNode() {
+        if (enabled && "advisory".equals(bookingLockMode)) {
+            throw new IllegalStateException("Kota defteri tek sunucu içindir, advisory kilit modunda " +
+                    "app.reservation.quota-ledger.enabled=false olmalıdır");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int limitFor(UserRole role) {
+        if (role == null) {
+            return defaultLimit;
+        }
+        return environment.getProperty("app.reservation.max-active-per-role." + role.name(), Integer.class, defaultLimit);
+    }
+
+    public int activeCount(Integer userId) {
+        while (true) {
+            Account account = account(userId);
+            synchronized (account) {
+                if (!account.evicted) {
+                    return account.active.size();
+                }
+            }
+        }
+    }
+
+    /*
+     Yeni eklenen rezervasyonu deftere yazar, limit aşılırsa MaxReservationLimitException fırlatır
+     Ekleme ile aynı transaction içinde çağrılır, böylece limit kontrolü rezervasyonla atomiktir
+     Transaction geri alınırsa kayıt defterden silinir
+     */
+    public void acquire(Integer userId, UserRole role, Integer reservationId, LocalDateTime endsAt) {
+        if (!endsAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        int limit = limitFor(role);
+        while (true) {
+            Account account = account(userId);
+            synchronized (account) {
+                if (account.evicted) {
+                    continue;
+                }
+                boolean added = account.active.putIfAbsent(reservationId, endsAt) == null;
+                if (account.active.size() > limit) {
+                    if (added) {
+                        account.active.remove(reservationId);
+                    }
+                    throw new MaxReservationLimitException("Maksimum " + limit + " aktif rezervasyon yapabilirsiniz");
+                }
+                if (added) {
+                    expiries.add(new Expiry(endsAt, userId, reservationId));
+                }
+                // Hesap bu transaction'ın eklediği satırla yüklenmiş olabilir, geri alınırsa her durumda silinmeli
+                onRollback(() -> remove(userId, reservationId));
+                return;
+            }
+        }
+    }
+
+    /*
+     İptal/silme sonrası - kayıt transaction commit edildikten sonra silinir, geri alınırsa hiç silinmez
+     Commit'e kadar iptal edilen rezervasyon sayılmaya devam eder; defter sadece daha sıkı yönde yanılır
+     */
+    public void release(Integer userId, Integer reservationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(userId, reservationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(userId, reservationId);
+            }
+        });
+    }
+
+    private void remove(Integer userId, Integer reservationId) {
+        Account account = accounts.get(userId);
+        if (account == null) {
+            return;
+        }
+        synchronized (account) {
+            account.active.remove(reservationId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation.quota-ledger.sweep-interval-ms:60000}")
+    public void expireEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        Expiry head;
+        while ((head = expiries.peek()) != null && !head.endsAt().isAfter(now)) {
+            Expiry expiry = expiries.poll();
+            if (expiry == null) {
+                break;
+            }
+            Account account = accounts.get(expiry.userId());
+            if (account == null) {
+                continue;
+            }
+            synchronized (account) {
+                account.active.remove(expiry.reservationId());
+                // Boş hesaplar bellekten atılır, gerekirse tekrar yüklenir
+                if (account.active.isEmpty()) {
+                    account.evicted = true;
+                    accounts.remove(expiry.userId(), account);
+                }
+            }
+        }
+    }
+
+    private Account account(Integer userId) {
+        Account account = accounts.get(userId);
+        if (account != null) {
+            return account;
+        }
+        Account loaded = new Account();
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        for (Object[] row : reservationRepository.findActiveReservationEndsByUserId(userId, today, now)) {
+            LocalDateTime endsAt = LocalDateTime.of((LocalDate) row[1], (LocalTime) row[2]);
+            loaded.active.put((Integer) row[0], endsAt);
+        }
+        Account existing = accounts.putIfAbsent(userId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        loaded.active.forEach((reservationId, endsAt) -> expiries.add(new Expiry(endsAt, userId, reservationId)));
+        return loaded;
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
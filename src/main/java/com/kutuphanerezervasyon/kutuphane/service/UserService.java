@@ -1,16 +1,20 @@
 package com.kutuphanerezervasyon.kutuphane.service;
 
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
 import com.kutuphanerezervasyon.kutuphane.dto.LoginRequest;
 import com.kutuphanerezervasyon.kutuphane.dto.RegisterRequest;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
 import com.kutuphanerezervasyon.kutuphane.dto.UserDTO;
 import com.kutuphanerezervasyon.kutuphane.entity.User;
 import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
 import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
 import com.kutuphanerezervasyon.kutuphane.exception.ResourceNotFoundException;
 import com.kutuphanerezervasyon.kutuphane.repository.UserRepository;
+import com.kutuphanerezervasyon.kutuphane.service.AutocompleteIndex.Kind;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -26,6 +30,8 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final SearchService searchService;
+    private final AutocompleteIndex autocompleteIndex;
     private final PasswordEncoder passwordEncoder;
 
     public UserDTO register(RegisterRequest request) {
@@ -41,6 +47,7 @@ public class UserService {
         user.setRole(UserRole.USER); // Kayıt olan herkes USER olur
 
         User savedUser = userRepository.save(user);
+        autocompleteIndex.onSaved(Kind.USERS, savedUser.getUserId(), savedUser.getName(), savedUser.getEmail());
         return convertToDTO(savedUser);
     }
 
@@ -57,6 +64,7 @@ public class UserService {
         user.setRole(UserRole.ADMIN); // Yeni admin oluştur
 
         User savedUser = userRepository.save(user);
+        autocompleteIndex.onSaved(Kind.USERS, savedUser.getUserId(), savedUser.getName(), savedUser.getEmail());
         return convertToDTO(savedUser);
     }
 
@@ -100,10 +108,14 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public List<UserDTO> searchUsers(String keyword) {
-        return userRepository.searchUsers(keyword).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public SearchResult<UserDTO> searchUsers(String keyword) {
+        return searchService.searchUsers(keyword);
+    }
+
+    // Bellekteki indeksten cevaplanır, transaction (ve bağlantı) açılmaz
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AutocompleteItem> autocompleteUsers(String prefix, Integer limit) {
+        return autocompleteIndex.complete(Kind.USERS, prefix, limit);
     }
 
     public UserDTO updateUser(Integer userId, UserDTO userDTO) {
@@ -121,6 +133,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        autocompleteIndex.onSaved(Kind.USERS, userId, updatedUser.getName(), updatedUser.getEmail());
         return convertToDTO(updatedUser);
     }
 
@@ -129,6 +142,7 @@ public class UserService {
             throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + userId);
         }
         userRepository.deleteById(userId);
+        autocompleteIndex.onDeleted(Kind.USERS, userId);
     }
 
     public UserDTO promoteToAdmin(Integer userId) {
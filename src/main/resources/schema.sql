@@ -0,0 +1,193 @@
+-- Hibernate (ddl-auto=update) tabloları oluşturduktan sonra çalışır
+-- (spring.jpa.defer-datasource-initialization=true). Tüm ifadeler tekrar çalıştırılabilir olmalıdır.
+
+-- Rezervasyonlar reservation_date üzerinden aylık bölümlenir: reservations_YYYY_MM + reservations_default
+-- Tarih filtreli sorgular sadece ilgili ayların bölümlerine bakar; rezervasyon yolundaki indeksler
+-- (kısmi unique'ler dahil) bölüm başınadır, eski aylar arşivlendikçe küçük kalır
+-- PL/pgSQL gövdeleri tek tırnak içindedir (script ayırıcısı ; olduğu için), içerideki tırnaklar çifttir
+
+-- from_date ile to_date arasındaki eksik aylık bölümleri oluşturur, oluşturulan sayıyı döner
+-- O aya ait satırlar varsayılan bölüme düşmüşse önce oradan alınıp yeni bölüme aktarılır
+CREATE OR REPLACE FUNCTION create_reservation_partitions(from_date DATE, to_date DATE) RETURNS INTEGER
+    LANGUAGE plpgsql
+    AS '
+DECLARE
+    month_start DATE := date_trunc(''month'', from_date)::date;
+    month_end DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_date LOOP
+        month_end := (month_start + INTERVAL ''1 month'')::date;
+        partition_name := ''reservations_'' || to_char(month_start, ''YYYY_MM'');
+        IF to_regclass(partition_name) IS NULL THEN
+            CREATE TEMP TABLE reservations_moving ON COMMIT DROP AS
+                SELECT * FROM reservations_default WHERE false;
+            WITH moved AS (
+                DELETE FROM reservations_default
+                WHERE reservation_date >= month_start AND reservation_date < month_end
+                RETURNING *
+            )
+            INSERT INTO reservations_moving SELECT * FROM moved;
+            EXECUTE format(''CREATE TABLE %I PARTITION OF reservations FOR VALUES FROM (%L) TO (%L)'',
+                           partition_name, month_start, month_end);
+            INSERT INTO reservations OVERRIDING SYSTEM VALUE SELECT * FROM reservations_moving;
+            DROP TABLE reservations_moving;
+            created := created + 1;
+        END IF;
+        month_start := month_end;
+    END LOOP;
+    RETURN created;
+END';
+
+-- Hibernate tabloyu bölümsüz oluşturur; ilk çalışmada bölümlü tabloya çevrilir (veri, FK'ler ve ID sayacı korunur)
+-- Birincil anahtar bölüm anahtarını içermek zorundadır: (reservation_id, reservation_date)
+DO '
+DECLARE
+    fk RECORD;
+    first_date DATE;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass(''reservations'')) IS DISTINCT FROM ''r'' THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE reservations RENAME TO reservations_unpartitioned;
+    CREATE TABLE reservations (LIKE reservations_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY)
+        PARTITION BY RANGE (reservation_date);
+    CREATE TABLE reservations_default PARTITION OF reservations DEFAULT;
+
+    SELECT min(reservation_date) INTO first_date FROM reservations_unpartitioned;
+    PERFORM create_reservation_partitions(LEAST(COALESCE(first_date, CURRENT_DATE), CURRENT_DATE),
+                                          (CURRENT_DATE + INTERVAL ''3 months'')::date);
+    INSERT INTO reservations OVERRIDING SYSTEM VALUE SELECT * FROM reservations_unpartitioned;
+
+    FOR fk IN SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint
+              WHERE conrelid = ''reservations_unpartitioned''::regclass AND contype = ''f'' LOOP
+        EXECUTE format(''ALTER TABLE reservations ADD CONSTRAINT %I %s'', fk.conname, fk.definition);
+    END LOOP;
+    PERFORM setval(pg_get_serial_sequence(''reservations'', ''reservation_id''),
+                   COALESCE((SELECT max(reservation_id) FROM reservations), 0) + 1, false);
+
+    DROP TABLE reservations_unpartitioned;
+    EXECUTE format(''ALTER SEQUENCE %s RENAME TO reservations_reservation_id_seq'',
+                   pg_get_serial_sequence(''reservations'', ''reservation_id''));
+    ALTER TABLE reservations ADD CONSTRAINT reservations_pkey PRIMARY KEY (reservation_id, reservation_date);
+END';
+
+-- Saklama süresini aşan aylık bölümler gzip'li CSV olarak burada tutulur ve bölüm silinir
+CREATE TABLE IF NOT EXISTS reservation_archive (
+    archive_month DATE         PRIMARY KEY,
+    row_count     INTEGER      NOT NULL,
+    content       BYTEA        NOT NULL,
+    archived_at   TIMESTAMP    NOT NULL
+);
+
+-- Aşağıdaki unique indeksler ilk kez oluşturulmadan önce mevcut verideki çiftler çözülür, aksi halde
+-- CREATE UNIQUE INDEX başarısız olur ve uygulama açılmaz. Her slotta en eski (küçük ID) kayıt kalır, diğerleri
+-- iptal edilir; kullanıcı slotunda onaylı olan bekleyenden önce gelir. İndeks zaten varsa adım atlanır
+DO '
+DECLARE
+    cancelled INTEGER;
+BEGIN
+    IF to_regclass(''ux_reservations_room_confirmed_slot'') IS NULL THEN
+        UPDATE reservations r SET status = ''IPTAL_EDILDI''
+        FROM (SELECT reservation_id, row_number() OVER (
+                  PARTITION BY room_id, reservation_date, time_slot_id ORDER BY reservation_id) AS rn
+              FROM reservations WHERE status = ''ONAYLANDI'' AND room_id IS NOT NULL) d
+        WHERE r.reservation_id = d.reservation_id AND d.rn > 1;
+        GET DIAGNOSTICS cancelled = ROW_COUNT;
+        IF cancelled > 0 THEN
+            RAISE WARNING ''Aynı oda slotunda çift onaylı % rezervasyon iptal edildi'', cancelled;
+        END IF;
+    END IF;
+
+    IF to_regclass(''ux_reservations_equipment_confirmed_slot'') IS NULL THEN
+        UPDATE reservations r SET status = ''IPTAL_EDILDI''
+        FROM (SELECT reservation_id, row_number() OVER (
+                  PARTITION BY equipment_id, reservation_date, time_slot_id ORDER BY reservation_id) AS rn
+              FROM reservations WHERE status = ''ONAYLANDI'' AND equipment_id IS NOT NULL) d
+        WHERE r.reservation_id = d.reservation_id AND d.rn > 1;
+        GET DIAGNOSTICS cancelled = ROW_COUNT;
+        IF cancelled > 0 THEN
+            RAISE WARNING ''Aynı ekipman slotunda çift onaylı % rezervasyon iptal edildi'', cancelled;
+        END IF;
+    END IF;
+
+    IF to_regclass(''ux_reservations_user_active_slot'') IS NULL THEN
+        UPDATE reservations r SET status = ''IPTAL_EDILDI''
+        FROM (SELECT reservation_id, row_number() OVER (
+                  PARTITION BY user_id, reservation_date, time_slot_id
+                  ORDER BY (status = ''ONAYLANDI'') DESC, reservation_id) AS rn
+              FROM reservations WHERE status IN (''ONAYLANDI'', ''BEKLENIYOR'')) d
+        WHERE r.reservation_id = d.reservation_id AND d.rn > 1;
+        GET DIAGNOSTICS cancelled = ROW_COUNT;
+        IF cancelled > 0 THEN
+            RAISE WARNING ''Aynı kullanıcı slotunda çift aktif % rezervasyon iptal edildi'', cancelled;
+        END IF;
+    END IF;
+END';
+
+-- Çift rezervasyon engeli: bir oda/ekipman aynı tarih ve zaman diliminde sadece bir kez onaylanabilir
+CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_room_confirmed_slot
+    ON reservations (room_id, reservation_date, time_slot_id)
+    WHERE status = 'ONAYLANDI' AND room_id IS NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_equipment_confirmed_slot
+    ON reservations (equipment_id, reservation_date, time_slot_id)
+    WHERE status = 'ONAYLANDI' AND equipment_id IS NOT NULL;
+
+-- Bir kullanıcının aynı tarih ve zaman diliminde sadece bir aktif (onaylı/bekleyen) rezervasyonu olabilir
+CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_user_active_slot
+    ON reservations (user_id, reservation_date, time_slot_id)
+    WHERE status IN ('ONAYLANDI', 'BEKLENIYOR');
+
+-- ddl-auto=update mevcut enum CHECK kısıtını güncellemez; yeni durumlar (SURESI_DOLDU) için yeniden oluşturulur
+ALTER TABLE reservations DROP CONSTRAINT IF EXISTS reservations_status_check;
+ALTER TABLE reservations ADD CONSTRAINT reservations_status_check
+    CHECK (status IN ('ONAYLANDI', 'IPTAL_EDILDI', 'BEKLENIYOR', 'SURESI_DOLDU'));
+
+-- Bekleyenler listesi ve süresi dolan bekleyenleri bulan süpürücü için; sadece canlı (bekleyen) satırları içerir
+CREATE INDEX IF NOT EXISTS ix_reservations_pending_date
+    ON reservations (reservation_date, time_slot_id)
+    WHERE status = 'BEKLENIYOR';
+
+-- Idempotency-Key ile tekrarlanan yazma isteklerinin kayıtlı cevapları (çok sunuculu kurulum için)
+-- status_code NULL ise istek hâlâ işleniyor
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(200) PRIMARY KEY,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status_code     INTEGER,
+    content_type    VARCHAR(100),
+    response_body   BYTEA,
+    created_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+-- Rezervasyon listesinin keyset sayfalaması (reservation_date, reservation_id) sırasıyla yapılır
+CREATE INDEX IF NOT EXISTS ix_reservations_date_id
+    ON reservations (reservation_date, reservation_id);
+
+-- Durum filtresiz kullanıcı/oda/ekipman geçmişi ve listeleme filtreleri için; kısmi unique indeksler sadece
+-- aktif/onaylı satırları kapsadığı için bu sorgularda kullanılamaz
+CREATE INDEX IF NOT EXISTS ix_reservations_user_date
+    ON reservations (user_id, reservation_date);
+
+CREATE INDEX IF NOT EXISTS ix_reservations_room_date
+    ON reservations (room_id, reservation_date)
+    WHERE room_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_reservations_equipment_date
+    ON reservations (equipment_id, reservation_date)
+    WHERE equipment_id IS NOT NULL;
+
+-- findByStatus, durum filtreli listeleme ve panel sayaçları (GROUP BY status sadece indeksten okunur)
+CREATE INDEX IF NOT EXISTS ix_reservations_status_date
+    ON reservations (status, reservation_date);
+
+-- Arama için büyük/küçük harf ve Türkçe karakter katlama (İ/I/ı -> i, ş -> s, ğ -> g, ç -> c, ö -> o, ü -> u)
+-- lower() veritabanı locale'ine bağlı olduğundan Türkçe harfler önce translate ile çevrilir
+-- IMMUTABLE olduğu için ifade indekslerinde kullanılabilir; pg_trgm indeksleri SearchService açılışta oluşturur
+CREATE OR REPLACE FUNCTION search_fold(input TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE
+    AS 'SELECT lower(translate(input, ''İIıŞşĞğÇçÖöÜüÂâÎîÛû'', ''iiissggccoouuaaiiuu''))';
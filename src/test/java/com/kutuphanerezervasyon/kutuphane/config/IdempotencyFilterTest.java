@@ -0,0 +1,140 @@
+package com.kutuphanerezervasyon.kutuphane.config;
+
+import com.kutuphanerezervasyon.kutuphane.service.IdempotencyStore;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+ Idempotency-Key filtresi
+ İstekler MockMvc ile filtre zincirinden geçer; kullanılan anahtarlar testten sonra tablodan silinir
+ */
+@SpringBootTest(properties = "app.idempotency.max-body-bytes=256")
+@AutoConfigureMockMvc
+@DisplayName("Idempotency Filtresi Test")
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String key = "filter-test-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        store.abandon(key);
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+
+    @Test
+    @DisplayName("Aynı anahtarla tekrar gelen istek kayıtlı cevabı almalı")
+    void tekrarIstek_KayitliCevapDoner() throws Exception {
+        MvcResult first = mockMvc.perform(delete("/api/reservations/999999999").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+
+        MvcResult replayed = mockMvc.perform(delete("/api/reservations/999999999").header(IdempotencyFilter.HEADER, key))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn();
+        assertEquals(first.getResponse().getContentAsString(), replayed.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Aynı anahtar farklı gövdeyle kullanılırsa 422 dönmeli")
+    void farkliGovde_AyniAnahtar_Reddedilir() throws Exception {
+        mockMvc.perform(post("/api/reservations").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/reservations").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"userId\": 1}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("İlk istek hâlâ işlenirken aynı anahtarla gelen istek 409 ve Retry-After almalı")
+    void islenenIstek_AyniAnahtar_Cakisma() throws Exception {
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest inFlight = new MockHttpServletRequest("POST", "/api/reservations");
+        assertNull(store.begin(key, IdempotencyFilter.fingerprint(inFlight, body)));
+
+        mockMvc.perform(post("/api/reservations").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    @DisplayName("Sınırı aşan gövde okunmadan 413 ile reddedilmeli, anahtar sahiplenilmemeli")
+    void buyukGovde_413Doner() throws Exception {
+        String body = "{\"note\": \"" + "x".repeat(300) + "\"}";
+        mockMvc.perform(post("/api/reservations").header(IdempotencyFilter.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isPayloadTooLarge());
+
+        assertNull(store.begin(key, "baska-istek"), "Reddedilen istek anahtarı sahiplenmemeli");
+    }
+
+    @Test
+    @DisplayName("Önbelleğe alınmış gövde ReadListener ile de okunabilmeli")
+    void onbellekliGovde_ReadListenerDestekler() throws Exception {
+        byte[] body = "{\"roomId\": 3}".getBytes(StandardCharsets.UTF_8);
+        ServletInputStream input = new IdempotencyFilter.CachedBodyRequest(new MockHttpServletRequest(), body)
+                .getInputStream();
+        List<String> events = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                while (input.isReady() && !input.isFinished()) {
+                    read.append((char) input.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals("{\"roomId\": 3}", read.toString());
+    }
+}
@@ -0,0 +1,264 @@
+package com.kutuphanerezervasyon.kutuphane.repository;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Rezervasyon sorgularının plan testi
+ Her repository metodu çalıştırılır, Hibernate'in ürettiği SQL yakalanıp PREPARE edilir ve genel planı
+ (parametre değerinden bağımsız, prepared statement'ın tekrar kullandığı plan) EXPLAIN EXECUTE ile alınır;
+ reservations bölümlerinde sıralı tarama varsa test başarısız olur
+ Test tablosu küçük olduğundan enable_seqscan kapatılır: planner yine de Seq Scan seçiyorsa sorgunun
+ kullanabileceği bir indeks yoktur
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.kutuphanerezervasyon.kutuphane.repository.ReservationQueryPlanTest$SqlRecorder")
+@Transactional
+@DisplayName("Rezervasyon Sorgu Planı Test")
+class ReservationQueryPlanTest {
+
+    private static final int SEED_ROWS = 2000;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on reservations\\w*");
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "reservationDate", "reservationId");
+
+    // Sadece start/stop arasında, testin kendi thread'inde çalışan SQL'leri toplar
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+        static void start() {
+            RECORDED.set(new ArrayList<>());
+        }
+
+        static List<String> stop() {
+            List<String> recorded = RECORDED.get();
+            RECORDED.remove();
+            return recorded != null ? recorded : Collections.emptyList();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> recorded = RECORDED.get();
+            if (recorded != null) {
+                recorded.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Room room;
+    private Equipment equipment;
+    private TimeSlot timeSlot;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(1);
+
+        user = new User();
+        user.setName("Plan User");
+        user.setEmail("plan@test.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        room = new Room();
+        room.setName("Plan Room");
+        room.setCapacity(10);
+        room.setStatus(RoomStatus.EMPTY);
+        room = roomRepository.save(room);
+
+        equipment = new Equipment();
+        equipment.setName("Plan Equipment");
+        equipment.setType("Projector");
+        equipment.setStatus(EquipmentStatus.AVAILABLE);
+        equipment = equipmentRepository.save(equipment);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+        entityManager.flush();
+
+        // Her gün için bir rezervasyon; oda/ekipman ve durumlar dönüşümlü (kısmi unique indekslere takılmaz)
+        jdbcTemplate.update(
+                "INSERT INTO reservations (user_id, room_id, equipment_id, time_slot_id, reservation_date, status) " +
+                "SELECT ?, CASE WHEN g % 2 = 0 THEN ? END, CASE WHEN g % 2 = 1 THEN ? END, ?, ?::date + g, " +
+                "(ARRAY['ONAYLANDI', 'BEKLENIYOR', 'IPTAL_EDILDI', 'SURESI_DOLDU'])[g % 4 + 1] " +
+                "FROM generate_series(0, ?) g",
+                user.getUserId(), room.getRoomId(), equipment.getEquipmentId(), timeSlot.getTimeSlotId(),
+                Date.valueOf(date.minusDays(SEED_ROWS / 2)), SEED_ROWS - 1);
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+    }
+
+    @Test
+    @DisplayName("Çakışma kontrolleri indeks kullanır")
+    void cakismaSorgulari_IndeksKullanir() {
+        assertNoSeqScan("checkRoomConflict", () ->
+                reservationRepository.checkRoomConflict(room.getRoomId(), date, timeSlot.getTimeSlotId()));
+        assertNoSeqScan("checkEquipmentConflict", () ->
+                reservationRepository.checkEquipmentConflict(equipment.getEquipmentId(), date, timeSlot.getTimeSlotId()));
+        assertNoSeqScan("checkUserTimeSlotConflict", () ->
+                reservationRepository.checkUserTimeSlotConflict(user.getUserId(), date, timeSlot.getTimeSlotId()));
+        assertNoSeqScan("preflightBooking", () ->
+                reservationRepository.preflightBooking(user.getUserId(), room.getRoomId(), equipment.getEquipmentId(),
+                        timeSlot.getTimeSlotId(), date, LocalDate.now(), LocalTime.now(), true, true));
+    }
+
+    @Test
+    @DisplayName("Kullanıcı sorguları indeks kullanır")
+    void kullaniciSorgulari_IndeksKullanir() {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        assertNoSeqScan("findByUserUserId", () ->
+                reservationRepository.findByUserUserId(user.getUserId(), date.minusYears(1)));
+        assertNoSeqScan("findActiveReservationsByUserId", () ->
+                reservationRepository.findActiveReservationsByUserId(user.getUserId(), today, now));
+        assertNoSeqScan("countActiveReservationsByUserId", () ->
+                reservationRepository.countActiveReservationsByUserId(user.getUserId(), today, now));
+        assertNoSeqScan("findActiveReservationEndsByUserId", () ->
+                reservationRepository.findActiveReservationEndsByUserId(user.getUserId(), today, now));
+        assertNoSeqScan("countActiveReservationsByUserIds", () ->
+                reservationRepository.countActiveReservationsByUserIds(List.of(user.getUserId(), -1), today, now));
+    }
+
+    @Test
+    @DisplayName("Oda, ekipman ve ID sorguları indeks kullanır")
+    void kaynakSorgulari_IndeksKullanir() {
+        assertNoSeqScan("findById", () -> reservationRepository.findById(1));
+        assertNoSeqScan("findByRoomRoomId", () ->
+                reservationRepository.findByRoomRoomId(room.getRoomId(), date.minusYears(1)));
+        assertNoSeqScan("findByEquipmentEquipmentId", () ->
+                reservationRepository.findByEquipmentEquipmentId(equipment.getEquipmentId(), date.minusYears(1)));
+        assertNoSeqScan("findAvailableRooms", () ->
+                roomRepository.findAvailableRooms(date, timeSlot.getTimeSlotId()));
+        assertNoSeqScan("findAvailableEquipment", () ->
+                equipmentRepository.findAvailableEquipment(date, timeSlot.getTimeSlotId()));
+    }
+
+    @Test
+    @DisplayName("Durum ve tarih sorguları indeks kullanır")
+    void durumVeTarihSorgulari_IndeksKullanir() {
+        assertNoSeqScan("findByStatus", () -> reservationRepository.findByStatus(ReservationStatus.ONAYLANDI));
+        assertNoSeqScan("findPendingReservations", () -> reservationRepository.findPendingReservations());
+        assertNoSeqScan("countByStatus", () -> reservationRepository.countByStatus());
+        assertNoSeqScan("findByReservationDate", () -> reservationRepository.findByReservationDate(date));
+        assertNoSeqScan("findActiveSlotsFrom", () -> reservationRepository.findActiveSlotsFrom(LocalDate.now()));
+        assertNoSeqScan("findConfirmedSlotsBetween", () ->
+                reservationRepository.findConfirmedSlotsBetween(date, date.plusDays(6)));
+    }
+
+    @Test
+    @DisplayName("Listeleme sayfaları indeks kullanır")
+    void listelemeSayfalari_IndeksKullanir() {
+        assertNoSeqScan("ilk sayfa", () -> page(new ReservationQuery()));
+        assertNoSeqScan("imleçli sayfa", () -> reservationRepository.findBy(
+                ReservationSpecifications.matching(new ReservationQuery(), date, Integer.MAX_VALUE),
+                q -> q.sortBy(KEYSET_ORDER).limit(21).all()));
+
+        ReservationQuery byUser = new ReservationQuery();
+        byUser.setUserId(user.getUserId());
+        assertNoSeqScan("kullanıcı filtresi", () -> page(byUser));
+
+        ReservationQuery byRoom = new ReservationQuery();
+        byRoom.setRoomId(room.getRoomId());
+        assertNoSeqScan("oda filtresi", () -> page(byRoom));
+
+        ReservationQuery byStatus = new ReservationQuery();
+        byStatus.setStatus(List.of(ReservationStatus.BEKLENIYOR));
+        assertNoSeqScan("durum filtresi", () -> page(byStatus));
+    }
+
+    private List<Reservation> page(ReservationQuery query) {
+        return reservationRepository.findBy(ReservationSpecifications.matching(query, null, null),
+                q -> q.sortBy(KEYSET_ORDER).limit(21).all());
+    }
+
+    private void assertNoSeqScan(String name, Runnable query) {
+        // Bekleyen INSERT/UPDATE'ler yakalanan SQL'lere karışmasın
+        entityManager.flush();
+        entityManager.clear();
+        SqlRecorder.start();
+        List<String> statements;
+        try {
+            query.run();
+        } finally {
+            statements = SqlRecorder.stop();
+        }
+
+        List<String> reservationQueries = statements.stream()
+                .filter(sql -> sql.toLowerCase().contains("reservations")).toList();
+        assertFalse(reservationQueries.isEmpty(), name + " reservations tablosunu sorgulamadı");
+        for (String sql : reservationQueries) {
+            String plan = explain(sql);
+            assertFalse(SEQ_SCAN.matcher(plan).find(),
+                    () -> name + " reservations üzerinde sıralı tarama yapıyor:\n" + sql + "\n" + plan);
+        }
+    }
+
+    // JDBC ? yer tutucuları PREPARE'ın beklediği $1, $2... biçimine çevrilir; genel planda değerler kullanılmaz
+    private String explain(String sql) {
+        Matcher matcher = PLACEHOLDER.matcher(sql);
+        StringBuilder prepared = new StringBuilder();
+        int parameters = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(prepared, Matcher.quoteReplacement("$" + (++parameters)));
+        }
+        matcher.appendTail(prepared);
+
+        jdbcTemplate.execute("PREPARE plan_check AS " + prepared);
+        try {
+            String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE plan_check" + arguments, String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE plan_check");
+        }
+    }
+}
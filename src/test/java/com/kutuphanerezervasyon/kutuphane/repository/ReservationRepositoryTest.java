@@ -1,5 +1,6 @@
 package com.kutuphanerezervasyon.kutuphane.repository;
 
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationSlotView;
 import com.kutuphanerezervasyon.kutuphane.entity.*;
 import com.kutuphanerezervasyon.kutuphane.enums.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -178,4 +180,56 @@ class ReservationRepositoryTest {
 
         assertEquals(1L, conflict);
     }
+
+    @Test
+    @DisplayName("Aynı oda ve slot için ikinci onaylı rezervasyon veritabanı kısıtına takılır")
+    void ayniOdaSlotu_IkinciOnay_KisitaTakilir() {
+        Reservation first = new Reservation();
+        first.setUser(user);
+        first.setRoom(room);
+        first.setTimeSlot(timeSlot);
+        first.setReservationDate(LocalDate.now().plusDays(1));
+        first.setStatus(ReservationStatus.ONAYLANDI);
+        reservationRepository.saveAndFlush(first);
+
+        User other = new User();
+        other.setName("Other User");
+        other.setEmail("other@test.com");
+        other.setPassword("password");
+        other.setRole(UserRole.USER);
+        other = userRepository.save(other);
+
+        Reservation second = new Reservation();
+        second.setUser(other);
+        second.setRoom(room);
+        second.setTimeSlot(timeSlot);
+        second.setReservationDate(LocalDate.now().plusDays(1));
+        second.setStatus(ReservationStatus.ONAYLANDI);
+
+        assertThrows(DataIntegrityViolationException.class, () -> reservationRepository.saveAndFlush(second));
+    }
+
+    @Test
+    @DisplayName("Müsaitlik matrisi projeksiyonu tüm slot alanlarını doldurur")
+    void onayliSlotlar_TumAlanlarDolu() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Reservation confirmed = new Reservation();
+        confirmed.setUser(user);
+        confirmed.setRoom(room);
+        confirmed.setTimeSlot(timeSlot);
+        confirmed.setReservationDate(date);
+        confirmed.setStatus(ReservationStatus.ONAYLANDI);
+        Integer reservationId = reservationRepository.save(confirmed).getReservationId();
+
+        ReservationSlotView row = reservationRepository.findConfirmedSlotsBetween(date, date).stream()
+            .filter(view -> view.getReservationId().equals(reservationId))
+            .findFirst().orElseThrow();
+
+        assertEquals(user.getUserId(), row.getUserId());
+        assertEquals(room.getRoomId(), row.getRoomId());
+        assertNull(row.getEquipmentId());
+        assertEquals(timeSlot.getTimeSlotId(), row.getTimeSlotId());
+        assertEquals(date, row.getReservationDate());
+        assertEquals(ReservationStatus.ONAYLANDI, row.getStatus());
+    }
 }
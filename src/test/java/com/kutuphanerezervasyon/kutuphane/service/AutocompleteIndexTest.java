@@ -0,0 +1,118 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AutocompleteItem;
+import com.kutuphanerezervasyon.kutuphane.dto.RegisterRequest;
+import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.service.AutocompleteIndex.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Otomatik tamamlama indeksi
+ İndeks sadece commit edilmiş satırları tuttuğu için testler transaction'ları gerçekten commit eder;
+ oluşturulan oda ve kullanıcılar testten sonra silinir ve indeks yeniden kurulur
+ */
+@SpringBootTest
+@DisplayName("Otomatik Tamamlama Test")
+class AutocompleteIndexTest {
+
+    @Autowired
+    private AutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> createdRooms = new ArrayList<>();
+    private final List<Integer> createdUsers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        createdRooms.forEach(id -> jdbcTemplate.update("DELETE FROM rooms WHERE room_id = ?", id));
+        createdUsers.forEach(id -> jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", id));
+        autocompleteIndex.reloadAll();
+    }
+
+    @Test
+    @DisplayName("Kelime başı öneki ile bulmalı ve servis yazmalarıyla güncellenmeli")
+    void yazmalarlaGuncellenir() {
+        RoomDTO room = createRoom("Zümrüt Çalışma Odası");
+
+        assertTrue(ids(roomService.autocompleteRooms("ZUMR", null)).contains(room.getRoomId()));
+        List<AutocompleteItem> byWord = roomService.autocompleteRooms("çalışma  od", 50);
+        assertTrue(ids(byWord).contains(room.getRoomId()));
+        assertEquals(byWord.size(), byWord.stream().map(AutocompleteItem::getId).distinct().count());
+
+        roomService.updateRoom(room.getRoomId(), new RoomDTO(null, "Yakut Odası", null, null));
+        assertTrue(roomService.autocompleteRooms("zumrut", null).isEmpty());
+        assertEquals("Yakut Odası", roomService.autocompleteRooms("yakut", null).get(0).getLabel());
+
+        roomService.deleteRoom(room.getRoomId());
+        assertTrue(roomService.autocompleteRooms("yakut", null).isEmpty());
+
+        Integer userId = userService.register(
+            new RegisterRequest("Oğuz Kaan", "oguz.tamamlama@test.com", "password")).getUserId();
+        createdUsers.add(userId);
+        assertEquals(List.of(userId), ids(userService.autocompleteUsers("OĞUZ.TAMAM", 5)));
+        assertTrue(ids(userService.autocompleteUsers("kaan", 50)).contains(userId));
+    }
+
+    @Test
+    @DisplayName("Değişiklik commit'ten önce görünmemeli, geri alınırsa hiç uygulanmamalı")
+    void commitEdilmeyenDegisiklik_IndekseGirmez() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            createRoom("Lacivert Toplantı Odası");
+            assertTrue(roomService.autocompleteRooms("lacivert", null).isEmpty());
+            status.setRollbackOnly();
+        });
+        assertTrue(roomService.autocompleteRooms("lacivert", null).isEmpty());
+
+        Integer committed = transaction.execute(status -> createRoom("Lacivert Toplantı Odası").getRoomId());
+        assertEquals(List.of(committed), ids(roomService.autocompleteRooms("lacivert", null)));
+    }
+
+    @Test
+    @DisplayName("Servis dışından eklenen oda yeniden kurulumda indekse girmeli")
+    void yenidenKurulum_DisaridanEklenenOda() {
+        Integer roomId = jdbcTemplate.queryForObject(
+            "INSERT INTO rooms (name, capacity, status) VALUES ('Fildişi Odası', 2, 'EMPTY') RETURNING room_id",
+            Integer.class);
+        createdRooms.add(roomId);
+        assertTrue(roomService.autocompleteRooms("fildisi", null).isEmpty());
+
+        autocompleteIndex.reload(Kind.ROOMS);
+
+        assertEquals(List.of(roomId), ids(roomService.autocompleteRooms("fildisi", null)));
+    }
+
+    private RoomDTO createRoom(String name) {
+        RoomDTO room = roomService.createRoom(new RoomDTO(null, name, 4, RoomStatus.EMPTY));
+        createdRooms.add(room.getRoomId());
+        return room;
+    }
+
+    private static List<Integer> ids(List<AutocompleteItem> items) {
+        return items.stream().map(AutocompleteItem::getId).toList();
+    }
+}
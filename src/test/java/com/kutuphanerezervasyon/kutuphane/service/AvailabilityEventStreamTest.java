@@ -0,0 +1,133 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent;
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityEvent.Resource;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.entity.Room;
+import com.kutuphanerezervasyon.kutuphane.entity.TimeSlot;
+import com.kutuphanerezervasyon.kutuphane.entity.User;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.repository.RoomRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.TimeSlotRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Müsaitlik olay akışı (SSE)
+ Olaylar commit sonrası yayınlanır; test transaction'ı commit edilmediği için yayın ayrı bir transaction'da yapılır
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Müsaitlik Akışı Test")
+class AvailabilityEventStreamTest {
+
+    @Autowired
+    private AvailabilityEventStream availabilityEventStream;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Room room;
+    private TimeSlot timeSlot;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Stream User");
+        user.setEmail("stream@test.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        room = new Room();
+        room.setName("Stream Room");
+        room.setCapacity(10);
+        room.setStatus(RoomStatus.EMPTY);
+        room = roomRepository.save(room);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+    }
+
+    @Test
+    @DisplayName("Müsaitlik akışı olayları commit sonrası ve aboneliğin filtresine göre göndermeli")
+    void musaitlikAkisi_CommitSonrasiFiltreli() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(3);
+        List<AvailabilityEvent> received = new CopyOnWriteArrayList<>();
+        AtomicBoolean open = new AtomicBoolean(true);
+        SseEmitter emitter = new SseEmitter(0L) {
+            @Override
+            public void send(SseEventBuilder builder) {
+                if (!open.get()) {
+                    throw new IllegalStateException("kapalı");
+                }
+                builder.build().stream().map(DataWithMediaType::getData)
+                    .filter(AvailabilityEvent.class::isInstance)
+                    .forEach(data -> received.add((AvailabilityEvent) data));
+            }
+        };
+        availabilityEventStream.subscribe(emitter, day, Resource.ROOM, null);
+        try {
+            ReservationRequest request = new ReservationRequest();
+            request.setUserId(user.getUserId());
+            request.setRoomId(room.getRoomId());
+            request.setTimeSlotId(timeSlot.getTimeSlotId());
+            request.setReservationDate(day);
+            reservationService.confirmReservation(reservationService.createReservation(request).getReservationId());
+
+            // Test transaction'ı commit edilmez, olaylar da yayınlanmaz
+            TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+            newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            newTransaction.executeWithoutResult(status -> {
+                availabilityEventStream.publish(new AvailabilityEvent(Resource.ROOM, 1, day, 1, "BOOKED"));
+                availabilityEventStream.publish(new AvailabilityEvent(Resource.ROOM, 1, day.plusDays(1), 1, "BOOKED"));
+                availabilityEventStream.publish(new AvailabilityEvent(Resource.EQUIPMENT, 1, day, 1, "BOOKED"));
+                availabilityEventStream.publishStatus(Resource.ROOM, 1, RoomStatus.MAINTENANCE);
+                assertTrue(received.isEmpty());
+            });
+
+            // Gönderim sanal thread üzerinde yapılır
+            for (int i = 0; i < 100 && received.size() < 2; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals(List.of("BOOKED", "MAINTENANCE"),
+                received.stream().map(AvailabilityEvent::getState).toList());
+        } finally {
+            open.set(false);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BookingTicketDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.enums.BookingTicketStatus;
+import com.kutuphanerezervasyon.kutuphane.exception.ReservationConflictException;
+import com.kutuphanerezervasyon.kutuphane.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/*
+ Rezervasyon kabul kuyruğu
+ ReservationService sahte nesnedir; işçiyi istenen an meşgul tutmak için cevap bir latch üzerinde bekletilir
+ Tek işçi ve tek kuyruk yeri ile kuyruğun dolması birkaç istekle gözlenir
+ */
+@SpringBootTest(properties = {
+        "app.reservation.admission.enabled=true",
+        "app.reservation.admission.workers=1",
+        "app.reservation.admission.queue-capacity=1",
+        "app.reservation.admission.max-wait-ms=200",
+        "app.reservation.admission.retry-after-seconds=7"
+})
+@DisplayName("Rezervasyon Kabul Kuyruğu Test")
+class BookingAdmissionQueueTest {
+
+    @Autowired
+    private BookingAdmissionQueue admissionQueue;
+
+    @MockitoBean
+    private ReservationService reservationService;
+
+    private final List<CountDownLatch> blocked = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        blocked.forEach(CountDownLatch::countDown);
+        // Kuyrukta kalan istekler sonraki testin sahte cevabına düşmesin
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && ((int) admissionQueue.getStats().get("queued") > 0
+                || (int) admissionQueue.getStats().get("processing") > 0)) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Kuyruğa alınan istek işlenmeli, sonuç bilet üzerinden dönmeli")
+    void kuyruktakiIstek_BiletUzerindenTamamlanir() {
+        ReservationDTO created = new ReservationDTO();
+        created.setReservationId(42);
+        when(reservationService.createReservation(any())).thenReturn(created);
+
+        BookingTicketDTO ticket = admissionQueue.submit(new ReservationRequest());
+        assertNotNull(ticket.getTicketId());
+
+        BookingTicketDTO result = admissionQueue.poll(ticket.getTicketId(), 5000).join();
+        assertEquals(BookingTicketStatus.TAMAMLANDI, result.getStatus());
+        assertEquals(42, result.getReservation().getReservationId());
+    }
+
+    @Test
+    @DisplayName("İşlenen istekteki hata bilete HTTP koduyla yazılmalı")
+    void hataliIstek_BileteHttpKoduYazilir() {
+        when(reservationService.createReservation(any())).thenThrow(new ReservationConflictException("dolu"));
+
+        BookingTicketDTO ticket = admissionQueue.submit(new ReservationRequest());
+        BookingTicketDTO result = admissionQueue.poll(ticket.getTicketId(), 5000).join();
+
+        assertEquals(BookingTicketStatus.HATA, result.getStatus());
+        assertEquals(409, result.getHttpStatus());
+        assertEquals("dolu", result.getError());
+    }
+
+    @Test
+    @DisplayName("Kuyruk doluysa istek Retry-After süresiyle reddedilmeli")
+    void kuyrukDolu_ServisMesgulHatasi() throws Exception {
+        CountDownLatch started = blockWorker();
+        BookingTicketDTO processing = admissionQueue.submit(new ReservationRequest());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        BookingTicketDTO queued = admissionQueue.submit(new ReservationRequest());
+        assertEquals(BookingTicketStatus.KUYRUKTA, queued.getStatus());
+
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class,
+                () -> admissionQueue.submit(new ReservationRequest()));
+        assertEquals(7, exception.getRetryAfterSeconds());
+        assertEquals(BookingTicketStatus.ISLENIYOR,
+                admissionQueue.poll(processing.getTicketId(), 0).join().getStatus());
+    }
+
+    @Test
+    @DisplayName("Long-poll süre dolunca biletin güncel durumunu dönmeli, süre max-wait ile sınırlanmalı")
+    void longPollZamanAsimi_GuncelDurumDoner() throws Exception {
+        CountDownLatch started = blockWorker();
+        BookingTicketDTO ticket = admissionQueue.submit(new ReservationRequest());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long begin = System.nanoTime();
+        BookingTicketDTO result = admissionQueue.poll(ticket.getTicketId(), 60_000).get(5, TimeUnit.SECONDS);
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+
+        assertEquals(BookingTicketStatus.ISLENIYOR, result.getStatus());
+        assertTrue(waitedMillis >= 150 && waitedMillis < 5000, "Bekleme max-wait-ms kadar sürmeli: " + waitedMillis);
+    }
+
+    @Test
+    @DisplayName("İşçi sayısı bağlantı havuzundan küçük olmalı")
+    void isciSayisi_BaglantiHavuzundanKucuk() {
+        assertEquals(8, BookingAdmissionQueue.workerCount(0, 10, 2));
+        assertEquals(8, BookingAdmissionQueue.workerCount(20, 10, 2));
+        assertEquals(4, BookingAdmissionQueue.workerCount(4, 10, 2));
+        assertEquals(1, BookingAdmissionQueue.workerCount(0, 2, 2));
+        assertEquals(1, admissionQueue.getStats().get("workers"));
+    }
+
+    // Sıradaki createReservation çağrısı test bitene kadar bekler; dönen latch çağrı başladığında açılır
+    private CountDownLatch blockWorker() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        blocked.add(release);
+        when(reservationService.createReservation(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return new ReservationDTO();
+        });
+        return started;
+    }
+}
@@ -0,0 +1,110 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.exception.ServiceBusyException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Rezervasyon slot kilitleri (local mod)
+ Bekleme süresi kısa tutulur, zaman aşımı testi hızlı biter
+ */
+@SpringBootTest(properties = "app.reservation.booking-lock.timeout-ms=300")
+@DisplayName("Rezervasyon Kilidi Test")
+class BookingLockManagerTest {
+
+    @Autowired
+    private BookingLockManager bookingLockManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> keys = BookingLockManager.bookingKeys(1, 2, null, LocalDate.now().plusDays(3), 4);
+
+    @Test
+    @DisplayName("Aynı slota gelen iki istek sırayla çalışmalı, kilit transaction dışında alınmalı")
+    void ayniSlot_IkiThreadSiraylaCalisir() throws Exception {
+        CountDownLatch firstInside = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicBoolean firstDone = new AtomicBoolean();
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> bookingLockManager.callWithLocks(keys, () -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            firstInside.countDown();
+            await(releaseFirst);
+            firstDone.set(true);
+            return null;
+        }));
+        assertTrue(firstInside.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() ->
+                bookingLockManager.callWithLocks(keys, firstDone::get));
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertTrue(second.get(5, TimeUnit.SECONDS), "İkinci istek ilk transaction bittikten sonra çalışmalı");
+    }
+
+    @Test
+    @DisplayName("Geri alınan transaction kilidi bırakmalı")
+    void geriAlinanTransaction_KilidiBirakir() throws Exception {
+        assertThrows(IllegalStateException.class, () -> bookingLockManager.callWithLocks(keys, () -> {
+            throw new IllegalStateException("geri al");
+        }));
+        assertEquals("ok", CompletableFuture.supplyAsync(() -> bookingLockManager.callWithLocks(keys, () -> "ok"))
+                .get(5, TimeUnit.SECONDS));
+
+        // Çağıranın transaction'ına katılan kilit de rollback ile bırakılır
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookingLockManager.lockAll(keys);
+            status.setRollbackOnly();
+        });
+        assertEquals("ok", CompletableFuture.supplyAsync(() -> bookingLockManager.callWithLocks(keys, () -> "ok"))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Kilit zaman aşımında çakışma değil meşgul hatası (503 + Retry-After) dönmeli")
+    void zamanAsimi_MesgulHatasiDoner() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> bookingLockManager.callWithLocks(keys, () -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        try {
+            ServiceBusyException busy = assertThrows(ServiceBusyException.class,
+                    () -> bookingLockManager.callWithLocks(keys, () -> null));
+            assertEquals(1, busy.getRetryAfterSeconds());
+        } finally {
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.config.CatalogCachePolicy;
+import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.service.CatalogVersions.Catalog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Katalog sürümleri ve ETag / Cache-Control cevapları
+ Sürüm sadece commit edilen yazmalarla değiştiği için yazma ayrı bir transaction'da yapılır
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Katalog Sürümleri Test")
+class CatalogVersionsTest {
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private CatalogCachePolicy catalogCachePolicy;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Eşleşen If-None-Match listeyi okumadan 304 dönmeli, yazma commit edilince ETag değişmeli")
+    void katalogEtag_EslesinceListeOkunmaz() {
+        String etag = catalogVersions.etag(Catalog.ROOMS);
+
+        ResponseEntity<List<RoomDTO>> notModified = catalogCachePolicy.respond(Catalog.ROOMS, "\"x\", W/" + etag,
+            () -> fail("304 için liste okunmamalı"));
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(etag, notModified.getHeaders().getETag());
+        assertEquals("no-cache", notModified.getHeaders().getCacheControl());
+
+        ResponseEntity<List<RoomDTO>> fresh = catalogCachePolicy.respond(Catalog.ROOMS, "\"x\"", List::of);
+        assertEquals(HttpStatus.OK, fresh.getStatusCode());
+        assertNotNull(fresh.getBody());
+        assertEquals("max-age=300, public", catalogCachePolicy.respond(Catalog.TIME_SLOTS, null, List::of)
+            .getHeaders().getCacheControl());
+
+        // Test transaction'ı commit edilmediği için yazma ayrı bir transaction'da yapılır
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        newTransaction.executeWithoutResult(status -> {
+            catalogVersions.bump(Catalog.ROOMS);
+            assertEquals(etag, catalogVersions.etag(Catalog.ROOMS));
+        });
+        assertNotEquals(etag, catalogVersions.etag(Catalog.ROOMS));
+        assertEquals(HttpStatus.OK, catalogCachePolicy.respond(Catalog.ROOMS, etag, List::of).getStatusCode());
+    }
+}
@@ -0,0 +1,131 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Admin paneli sayaçları
+ Veritabanında açılışta eklenen kayıtlar da bulunduğundan sayaçlar test verisinden önceki değerlere göre karşılaştırılır
+ Önbellek kapalıdır (TTL 0), her çağrı sorguları yeniden çalıştırır
+ */
+@SpringBootTest(properties = "app.admin.dashboard.cache-ttl-ms=0")
+@Transactional
+@DisplayName("Panel İstatistikleri Test")
+class DashboardStatsServiceTest {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("Sayaçlar eklenen kullanıcı, oda, ekipman ve rezervasyonlarla birlikte artmalı")
+    void sayaclar_EklenenVeriyleUyumlu() {
+        Map<String, Object> before = dashboardStatsService.getStats();
+
+        User user = saveUser("Panel User", "panel-user@test.com", UserRole.USER);
+        saveUser("Panel Admin", "panel-admin@test.com", UserRole.ADMIN);
+        Room emptyRoom = saveRoom("Panel Room 1", RoomStatus.EMPTY);
+        saveRoom("Panel Room 2", RoomStatus.MAINTENANCE);
+        Equipment equipment = new Equipment();
+        equipment.setName("Panel Equipment");
+        equipment.setType("Laptop");
+        equipment.setStatus(EquipmentStatus.RESERVED);
+        equipment = equipmentRepository.save(equipment);
+
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(6, 0));
+        timeSlot.setEndTime(LocalTime.of(7, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+
+        // Her rezervasyon ayrı günde, kısmi unique indekslere takılmaz
+        LocalDate date = LocalDate.now().plusDays(20);
+        ReservationStatus[] statuses = {ReservationStatus.ONAYLANDI, ReservationStatus.BEKLENIYOR,
+                ReservationStatus.BEKLENIYOR, ReservationStatus.IPTAL_EDILDI, ReservationStatus.SURESI_DOLDU};
+        for (int i = 0; i < statuses.length; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setRoom(i % 2 == 0 ? emptyRoom : null);
+            reservation.setEquipment(i % 2 == 1 ? equipment : null);
+            reservation.setTimeSlot(timeSlot);
+            reservation.setReservationDate(date.plusDays(i));
+            reservation.setStatus(statuses[i]);
+            reservationRepository.save(reservation);
+        }
+
+        Map<String, Object> after = dashboardStatsService.getStats();
+
+        assertIncreased(before, after, "totalUsers", 2);
+        assertIncreased(before, after, "totalAdmins", 1);
+        assertIncreased(before, after, "totalRegularUsers", 1);
+        assertIncreased(before, after, "totalRooms", 2);
+        assertIncreased(before, after, "emptyRooms", 1);
+        assertIncreased(before, after, "occupiedRooms", 0);
+        assertIncreased(before, after, "maintenanceRooms", 1);
+        assertIncreased(before, after, "totalEquipment", 1);
+        assertIncreased(before, after, "availableEquipment", 0);
+        assertIncreased(before, after, "reservedEquipment", 1);
+        assertIncreased(before, after, "totalReservations", 5);
+        assertIncreased(before, after, "confirmedReservations", 1);
+        assertIncreased(before, after, "pendingReservations", 2);
+        assertIncreased(before, after, "cancelledReservations", 1);
+        assertIncreased(before, after, "expiredReservations", 1);
+        assertIncreased(before, after, "totalTimeSlots", 1);
+
+        // Toplamlar durum sayaçlarının toplamıyla tutarlı
+        assertEquals(count(after, "totalReservations"), count(after, "confirmedReservations")
+                + count(after, "pendingReservations") + count(after, "cancelledReservations")
+                + count(after, "expiredReservations"));
+        assertEquals(count(after, "totalUsers"), count(after, "totalAdmins") + count(after, "totalRegularUsers"));
+    }
+
+    private User saveUser(String name, String email, UserRole role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    private Room saveRoom(String name, RoomStatus status) {
+        Room room = new Room();
+        room.setName(name);
+        room.setCapacity(4);
+        room.setStatus(status);
+        return roomRepository.save(room);
+    }
+
+    private static void assertIncreased(Map<String, Object> before, Map<String, Object> after, String key, long delta) {
+        assertEquals(count(before, key) + delta, count(after, key), key);
+    }
+
+    private static long count(Map<String, Object> stats, String key) {
+        return ((Number) stats.get(key)).longValue();
+    }
+}
@@ -0,0 +1,177 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.service.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/*
+ Idempotency cevap deposu (bellek + idempotency_keys tablosu)
+ Kullanılan anahtarlar testten sonra tablodan silinir
+ */
+@SpringBootTest
+@DisplayName("Idempotency Deposu Test")
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String key = "store-test-" + UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        store.abandon(key);
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+
+    @Test
+    @DisplayName("Aynı anda gelen aynı anahtarlı isteklerden sadece biri sahiplenmeli, diğerleri işleniyor görmeli")
+    void esZamanliIstekler_TekSahip() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<StoredResponse>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return store.begin(key, "fp");
+            }));
+        }
+        start.countDown();
+
+        int owners = 0;
+        for (CompletableFuture<StoredResponse> result : results) {
+            StoredResponse response = result.get(10, TimeUnit.SECONDS);
+            if (response == null) {
+                owners++;
+            } else {
+                assertFalse(response.isCompleted());
+            }
+        }
+        assertEquals(1, owners);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL",
+                Integer.class, key));
+    }
+
+    @Test
+    @DisplayName("Tamamlanan cevap tekrar istekte dönmeli, bırakılan anahtar yeniden sahiplenilebilmeli")
+    void tamamlananCevap_TekrarDoner_BirakilanAnahtarSerbest() {
+        assertNull(store.begin(key, "fp"));
+        store.complete(key, "fp", 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        StoredResponse replayed = store.begin(key, "fp");
+        assertNotNull(replayed);
+        assertEquals(201, replayed.status());
+        assertEquals("{\"id\":1}", new String(replayed.body(), StandardCharsets.UTF_8));
+
+        String other = key + "-abandon";
+        try {
+            assertNull(store.begin(other, "fp"));
+            store.abandon(other);
+            assertNull(store.begin(other, "fp"), "Bırakılan anahtar tekrar sahiplenilebilmeli");
+        } finally {
+            store.abandon(other);
+        }
+    }
+
+    @Test
+    @DisplayName("Veritabanı hatasında bellekteki sahiplenme geri alınmalı, anahtar işleniyor olarak kalmamalı")
+    void veritabaniHatasi_SahiplenmeGeriAlinir() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        IdempotencyStore isolated = newStore(failing, true, 60);
+        doThrow(new CannotGetJdbcConnectionException("bağlantı yok"))
+                .when(failing).update(anyString(), any(Object[].class));
+        assertThrows(CannotGetJdbcConnectionException.class, () -> isolated.begin(key, "fp"));
+        assertEquals(0, isolated.size());
+
+        doReturn(1).when(failing).update(anyString(), any(Object[].class));
+        assertNull(isolated.begin(key, "fp"), "Hata sonrası tekrar istek anahtarı sahiplenebilmeli");
+    }
+
+    @Test
+    @DisplayName("Bellekte yarım kalmış işleniyor kaydı devralınmalı ve temizlikte atılmalı")
+    void yarimKalanKayit_Devralinir() throws Exception {
+        IdempotencyStore isolated = newStore(jdbcTemplate, false, 0);
+        assertNull(isolated.begin(key, "fp"));
+        Thread.sleep(5);
+        assertNull(isolated.begin(key, "fp"), "Zaman aşımını geçen işleniyor kaydı devralınmalı");
+
+        Thread.sleep(5);
+        isolated.removeExpired();
+        assertEquals(0, isolated.size());
+    }
+
+    // Bağımsız depo: Spring dışında, verilen JdbcTemplate ve ayarlarla
+    private static IdempotencyStore newStore(JdbcTemplate jdbcTemplate, boolean tableEnabled, long inFlightTimeoutSeconds) {
+        IdempotencyStore isolated = new IdempotencyStore(jdbcTemplate);
+        ReflectionTestUtils.setField(isolated, "enabled", true);
+        ReflectionTestUtils.setField(isolated, "tableEnabled", tableEnabled);
+        ReflectionTestUtils.setField(isolated, "maxEntries", 100);
+        ReflectionTestUtils.setField(isolated, "ttlMinutes", 60L);
+        ReflectionTestUtils.setField(isolated, "inFlightTimeoutSeconds", inFlightTimeoutSeconds);
+        return isolated;
+    }
+
+    // Süre 0 dakika: tamamlanan her cevabın süresi hemen dolar
+    // Ayrı bir context açılır; dış sınıfın alanları varsayılan context'ten gelir, depo burada tekrar alınır
+    @Nested
+    @TestPropertySource(properties = "app.idempotency.ttl-minutes=0")
+    @DisplayName("Süre dolumu")
+    class SureDolumu {
+
+        @Autowired
+        private IdempotencyStore store;
+
+        @AfterEach
+        void tearDown() {
+            store.abandon(key);
+        }
+
+        @Test
+        @DisplayName("Süresi dolan cevap tekrar oynatılmamalı, anahtar yeniden sahiplenilmeli ve temizlikte silinmeli")
+        void suresiDolanCevap_YenidenSahiplenilir() throws Exception {
+            assertNull(store.begin(key, "fp"));
+            store.complete(key, "fp", 200, null, new byte[0]);
+            Thread.sleep(5);
+
+            assertNull(store.begin(key, "baska-fp"), "Süresi dolan anahtar yeni istek için sahiplenilmeli");
+            assertEquals("baska-fp", jdbcTemplate.queryForObject(
+                    "SELECT fingerprint FROM idempotency_keys WHERE idempotency_key = ?", String.class, key));
+
+            store.complete(key, "baska-fp", 200, null, new byte[0]);
+            Thread.sleep(5);
+            store.removeExpired();
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM idempotency_keys WHERE idempotency_key = ?", Integer.class, key));
+        }
+    }
+}
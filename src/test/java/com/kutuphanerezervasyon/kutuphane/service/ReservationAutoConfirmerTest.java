@@ -0,0 +1,161 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusResult;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Bekleyen rezervasyonların otomatik onayı
+ Zamanlanmış çalışma varsayılan olarak kapalıdır; testler admin tetiklemesiyle aynı yolu (run) kullanır
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Otomatik Onay Test")
+class ReservationAutoConfirmerTest {
+
+    @Autowired
+    private ReservationAutoConfirmer autoConfirmer;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private ReservationOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Room room;
+    private TimeSlot timeSlot;
+
+    @BeforeEach
+    void setUp() {
+        user = newUser("Confirm User", "confirm@test.com");
+        room = newRoom("Confirm Room");
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+    }
+
+    private User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    private Room newRoom(String name) {
+        Room room = new Room();
+        room.setName(name);
+        room.setCapacity(4);
+        room.setStatus(RoomStatus.EMPTY);
+        return roomRepository.save(room);
+    }
+
+    @Test
+    @DisplayName("Zamanlanmış otomatik onay açıkça etkinleştirilmedikçe kapalı olmalı")
+    void varsayilan_Kapali() {
+        assertEquals(false, autoConfirmer.getStats().get("enabled"));
+    }
+
+    @Test
+    @DisplayName("Otomatik onay - her slotta ilk bekleyen onaylanmalı, bakımdaki odanınki beklemede kalmalı")
+    void otomatikOnay_IlkGelenOnaylanirBakimdakiBekler() {
+        LocalDate day = LocalDate.now().plusDays(5);
+        User otherUser = newUser("Other User", "other@test.com");
+        Room maintenanceRoom = newRoom("Bakım Odası");
+
+        ReservationRequest request = new ReservationRequest();
+        request.setUserId(user.getUserId());
+        request.setRoomId(room.getRoomId());
+        request.setTimeSlotId(timeSlot.getTimeSlotId());
+        request.setReservationDate(day);
+        Integer firstId = reservationService.createReservation(request).getReservationId();
+
+        request.setUserId(otherUser.getUserId());
+        Integer secondId = reservationService.createReservation(request).getReservationId();
+
+        request.setRoomId(maintenanceRoom.getRoomId());
+        request.setReservationDate(day.plusDays(1));
+        Integer maintenanceId = reservationService.createReservation(request).getReservationId();
+        maintenanceRoom.setStatus(RoomStatus.MAINTENANCE);
+        roomRepository.saveAndFlush(maintenanceRoom);
+
+        BulkStatusResult result = autoConfirmer.run();
+        assertTrue(result.getUpdated().contains(firstId));
+        assertTrue(result.getConflicted().contains(secondId));
+        assertFalse(result.getUpdated().contains(maintenanceId) || result.getConflicted().contains(maintenanceId));
+
+        assertEquals(List.of("ONAYLANDI", "IPTAL_EDILDI", "BEKLENIYOR"), jdbcTemplate.queryForList(
+            "SELECT status FROM reservations WHERE reservation_id IN (?, ?, ?) ORDER BY reservation_id",
+            String.class, firstId, secondId, maintenanceId));
+        assertTrue(occupancyIndex.isRoomBooked(room.getRoomId(), day, timeSlot.getTimeSlotId()));
+    }
+
+    @Test
+    @DisplayName("Otomatik onay - dolu oda ve rezerve ekipman, tekil rezervasyondaki gibi beklemede kalmalı")
+    void otomatikOnay_DoluOdaVeRezerveEkipmanBekler() {
+        LocalDate day = LocalDate.now().plusDays(5);
+        Equipment equipment = new Equipment();
+        equipment.setName("Onay Projektörü");
+        equipment.setType("Projektör");
+        equipment.setStatus(EquipmentStatus.AVAILABLE);
+        equipment = equipmentRepository.save(equipment);
+
+        ReservationRequest request = new ReservationRequest();
+        request.setUserId(user.getUserId());
+        request.setRoomId(room.getRoomId());
+        request.setTimeSlotId(timeSlot.getTimeSlotId());
+        request.setReservationDate(day);
+        Integer roomReservationId = reservationService.createReservation(request).getReservationId();
+
+        request.setRoomId(null);
+        request.setEquipmentId(equipment.getEquipmentId());
+        request.setReservationDate(day.plusDays(1));
+        Integer equipmentReservationId = reservationService.createReservation(request).getReservationId();
+
+        room.setStatus(RoomStatus.OCCUPIED);
+        roomRepository.saveAndFlush(room);
+        equipment.setStatus(EquipmentStatus.RESERVED);
+        equipmentRepository.saveAndFlush(equipment);
+
+        BulkStatusResult result = autoConfirmer.run();
+        assertFalse(result.getUpdated().contains(roomReservationId));
+        assertFalse(result.getUpdated().contains(equipmentReservationId));
+        assertEquals(List.of("BEKLENIYOR", "BEKLENIYOR"), jdbcTemplate.queryForList(
+            "SELECT status FROM reservations WHERE reservation_id IN (?, ?) ORDER BY reservation_id",
+            String.class, roomReservationId, equipmentReservationId));
+    }
+}
@@ -0,0 +1,142 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusRequest;
+import com.kutuphanerezervasyon.kutuphane.dto.BulkStatusResult;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Toplu onay ve iptal
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Toplu Durum Güncelleme Test")
+class ReservationBulkServiceTest {
+
+    @Autowired
+    private ReservationBulkService reservationBulkService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private ReservationOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private UserQuotaLedger quotaLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Room room;
+    private Equipment equipment;
+    private TimeSlot timeSlot;
+
+    @BeforeEach
+    void setUp() {
+        user = newUser("Bulk User", "bulk@test.com");
+
+        room = new Room();
+        room.setName("Bulk Room");
+        room.setCapacity(10);
+        room.setStatus(RoomStatus.EMPTY);
+        room = roomRepository.save(room);
+
+        equipment = new Equipment();
+        equipment.setName("Bulk Equipment");
+        equipment.setType("Projector");
+        equipment.setStatus(EquipmentStatus.AVAILABLE);
+        equipment = equipmentRepository.save(equipment);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+    }
+
+    private User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
+    @Test
+    @DisplayName("Toplu onay - aynı slotu isteyen bekleyenlerden ilki onaylanmalı, diğeri iptal edilmeli")
+    void topluOnay_CakisanBekleyenlerTekGeciste() {
+        LocalDate day = LocalDate.now().plusDays(4);
+        User otherUser = newUser("Other User", "other@test.com");
+
+        ReservationRequest first = new ReservationRequest();
+        first.setUserId(user.getUserId());
+        first.setRoomId(room.getRoomId());
+        first.setTimeSlotId(timeSlot.getTimeSlotId());
+        first.setReservationDate(day);
+        Integer firstId = reservationService.createReservation(first).getReservationId();
+
+        ReservationRequest second = new ReservationRequest();
+        second.setUserId(otherUser.getUserId());
+        second.setRoomId(room.getRoomId());
+        second.setTimeSlotId(timeSlot.getTimeSlotId());
+        second.setReservationDate(day);
+        Integer secondId = reservationService.createReservation(second).getReservationId();
+
+        ReservationRequest equipmentRequest = new ReservationRequest();
+        equipmentRequest.setUserId(otherUser.getUserId());
+        equipmentRequest.setEquipmentId(equipment.getEquipmentId());
+        equipmentRequest.setTimeSlotId(timeSlot.getTimeSlotId());
+        equipmentRequest.setReservationDate(day.plusDays(1));
+        Integer equipmentId = reservationService.createReservation(equipmentRequest).getReservationId();
+
+        assertThrows(InvalidOperationException.class,
+            () -> reservationBulkService.confirm(new BulkStatusRequest(List.of(firstId), day)));
+
+        BulkStatusResult confirmed = reservationBulkService.confirm(new BulkStatusRequest(null, day));
+        assertEquals(List.of(firstId), confirmed.getUpdated());
+        assertEquals(List.of(secondId), confirmed.getConflicted());
+        assertTrue(occupancyIndex.isRoomBooked(room.getRoomId(), day, timeSlot.getTimeSlotId()));
+        // İptal edilenlerin kotası commit sonrası düşer, test transaction'ı commit edilmez
+        assertEquals(2, quotaLedger.activeCount(otherUser.getUserId()));
+
+        BulkStatusResult cancelled = reservationBulkService.cancel(
+            new BulkStatusRequest(List.of(equipmentId, firstId, -1), null));
+        assertEquals(List.of(equipmentId), cancelled.getUpdated());
+        assertEquals(List.of(firstId, -1), cancelled.getSkipped());
+        assertEquals(2, quotaLedger.activeCount(otherUser.getUserId()));
+
+        assertEquals(List.of("ONAYLANDI", "IPTAL_EDILDI", "IPTAL_EDILDI"), jdbcTemplate.queryForList(
+            "SELECT status FROM reservations WHERE reservation_id IN (?, ?, ?) ORDER BY reservation_id",
+            String.class, firstId, secondId, equipmentId));
+    }
+}
@@ -0,0 +1,101 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Tarihi geçmiş bekleyen rezervasyonların SURESI_DOLDU olarak işaretlenmesi
+ Geçmiş tarihli satırlar servis kontrollerine takılmamak için doğrudan SQL ile eklenir
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Süresi Dolan Rezervasyonlar Test")
+class ReservationExpirySweeperTest {
+
+    @Autowired
+    private ReservationExpirySweeper expirySweeper;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Room room;
+    private TimeSlot timeSlot;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Expiry User");
+        user.setEmail("expiry@test.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        room = new Room();
+        room.setName("Expiry Room");
+        room.setCapacity(10);
+        room.setStatus(RoomStatus.EMPTY);
+        room = roomRepository.save(room);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+    }
+
+    @Test
+    @DisplayName("Tarihi geçmiş bekleyen rezervasyonlar SURESI_DOLDU olmalı, onaylı ve gelecektekiler değişmemeli")
+    void suresiDolanlar_PartilerHalindeIsaretlenir() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        String insert = "INSERT INTO reservations (user_id, room_id, time_slot_id, reservation_date, status) " +
+            "VALUES (?, ?, ?, ?, ?) RETURNING reservation_id";
+        Integer stalePending = jdbcTemplate.queryForObject(insert, Integer.class, user.getUserId(),
+            room.getRoomId(), timeSlot.getTimeSlotId(), yesterday, "BEKLENIYOR");
+        Integer olderPending = jdbcTemplate.queryForObject(insert, Integer.class, user.getUserId(),
+            room.getRoomId(), timeSlot.getTimeSlotId(), yesterday.minusDays(1), "BEKLENIYOR");
+        Integer pastConfirmed = jdbcTemplate.queryForObject(insert, Integer.class, user.getUserId(),
+            room.getRoomId(), timeSlot.getTimeSlotId(), yesterday.minusDays(2), "ONAYLANDI");
+
+        ReservationRequest request = new ReservationRequest();
+        request.setUserId(user.getUserId());
+        request.setRoomId(room.getRoomId());
+        request.setTimeSlotId(timeSlot.getTimeSlotId());
+        request.setReservationDate(LocalDate.now().plusDays(2));
+        Integer futurePending = reservationService.createReservation(request).getReservationId();
+
+        assertTrue(expirySweeper.sweep() >= 2);
+        assertEquals(List.of("SURESI_DOLDU", "SURESI_DOLDU", "ONAYLANDI", "BEKLENIYOR"), jdbcTemplate.queryForList(
+            "SELECT status FROM reservations WHERE reservation_id IN (?, ?, ?, ?) ORDER BY reservation_id",
+            String.class, stalePending, olderPending, pastConfirmed, futurePending));
+        assertThrows(InvalidOperationException.class,
+            () -> reservationService.adminCancelReservation(stalePending));
+    }
+}
@@ -0,0 +1,166 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.enums.ReservationStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Doluluk indeksinin transaction sınırları
+ Transaction'lar gerçekten commit/rollback edilir; oluşturulan satırlar testten sonra silinir
+ */
+@SpringBootTest
+@DisplayName("Doluluk İndeksi Test")
+class ReservationOccupancyIndexTest {
+
+    @Autowired
+    private ReservationOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> cleanup = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        // Ters sırada: önce rezervasyon, sonra bağlı olduğu satırlar
+        for (int i = cleanup.size() - 1; i >= 0; i--) {
+            jdbcTemplate.update(cleanup.get(i));
+        }
+        occupancyIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Commit edilmemiş değişiklik sadece kendi transaction'ında görünmeli, geri alınınca hiç uygulanmamalı")
+    void commitEdilmemisDegisiklik_BaskaIstegeGorunmez() {
+        int roomId = 900_000_001;
+        LocalDate date = LocalDate.now().plusDays(10);
+        ReservationSlotRow row = new ReservationSlotRow(1, 900_000_001, roomId, null, 1, date,
+                ReservationStatus.ONAYLANDI);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            occupancyIndex.onStatusChanged(row, ReservationStatus.BEKLENIYOR);
+            assertTrue(occupancyIndex.isRoomBooked(roomId, date, 1, () -> false));
+
+            boolean otherRequest = CompletableFuture
+                    .supplyAsync(() -> occupancyIndex.isRoomBooked(roomId, date, 1, () -> false)).join();
+            assertFalse(otherRequest);
+            status.setRollbackOnly();
+        });
+
+        assertFalse(occupancyIndex.isRoomBooked(roomId, date, 1, () -> false));
+    }
+
+    @Test
+    @DisplayName("Yeniden kurulum commit'i sürmekte olan transaction'ı beklemeli, değişiklik kaybolmamalı")
+    void yenidenKurulum_CommitEdenTransactionuBekler() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(10);
+        Integer userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (name, email, password, role) VALUES ('Index User', 'index-user@test.com', 'x', 'USER') " +
+                "RETURNING user_id", Integer.class);
+        cleanup.add("DELETE FROM users WHERE user_id = " + userId);
+        Integer roomId = jdbcTemplate.queryForObject(
+                "INSERT INTO rooms (name, capacity, status) VALUES ('Index Room', 4, 'EMPTY') RETURNING room_id",
+                Integer.class);
+        cleanup.add("DELETE FROM rooms WHERE room_id = " + roomId);
+        Integer slotId = jdbcTemplate.queryForObject(
+                "INSERT INTO time_slots (start_time, end_time) VALUES ('07:00', '07:30') RETURNING time_slot_id",
+                Integer.class);
+        cleanup.add("DELETE FROM time_slots WHERE time_slot_id = " + slotId);
+        cleanup.add("DELETE FROM reservations WHERE room_id = " + roomId);
+
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Void> booking = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    Integer id = jdbcTemplate.queryForObject(
+                            "INSERT INTO reservations (user_id, room_id, time_slot_id, reservation_date, status) " +
+                            "VALUES (?, ?, ?, ?, 'ONAYLANDI') RETURNING reservation_id",
+                            Integer.class, userId, roomId, slotId, Date.valueOf(date));
+                    occupancyIndex.onStatusChanged(new ReservationSlotRow(id, userId, roomId, null, slotId, date,
+                            ReservationStatus.ONAYLANDI), null);
+                    // İndeksin senkronizasyonundan sonra kaydedilir, okuma kilidi alınmışken commit'i bekletir
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            committing.countDown();
+                            try {
+                                proceed.await(10, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    });
+                }));
+
+        assertTrue(committing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<?> rebuild = CompletableFuture.runAsync(occupancyIndex::rebuild);
+        Thread.sleep(200);
+        assertFalse(rebuild.isDone(), "Yeniden kurulum commit'i sürmekte olan transaction'ı beklemeli");
+
+        proceed.countDown();
+        booking.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertTrue(occupancyIndex.isRoomBooked(roomId, date, slotId, () -> false));
+    }
+
+    @Test
+    @DisplayName("Yeniden kurulum veritabanından okurken commit eden transaction beklememeli, değişiklik kaybolmamalı")
+    void yenidenKurulum_OkumaSirasindaCommitBeklemez() throws Exception {
+        int roomId = 900_000_002;
+        LocalDate date = LocalDate.now().plusDays(10);
+        ReservationSlotRow row = new ReservationSlotRow(2, 900_000_002, roomId, null, 1, date,
+                ReservationStatus.ONAYLANDI);
+
+        // Tablo kilidi yeniden kurulumun sorgusunu bekletir
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> tableLock = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    jdbcTemplate.execute("LOCK TABLE reservations IN ACCESS EXCLUSIVE MODE");
+                    locked.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<?> rebuild = CompletableFuture.runAsync(occupancyIndex::rebuild);
+        try {
+            Thread.sleep(200);
+            assertFalse(rebuild.isDone());
+
+            CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    occupancyIndex.onStatusChanged(row, ReservationStatus.BEKLENIYOR))).get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+        tableLock.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+
+        assertTrue(occupancyIndex.isRoomBooked(roomId, date, 1, () -> false));
+    }
+}
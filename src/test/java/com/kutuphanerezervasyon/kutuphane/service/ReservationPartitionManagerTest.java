@@ -0,0 +1,151 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Aylık bölümlerin arşivlenmesi
+ DDL de PostgreSQL'de transaction'a dahildir; oluşturulan/silinen bölümler ve arşiv satırları test sonunda geri alınır
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("Rezervasyon Bölümleri Test")
+class ReservationPartitionManagerTest {
+
+    private static final String CSV_HEADER =
+        "reservation_id,user_id,room_id,equipment_id,time_slot_id,reservation_date,status\n";
+
+    @Autowired
+    private ReservationPartitionManager partitionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final YearMonth oldMonth = YearMonth.now().minusYears(10);
+
+    private User user;
+    private Room room;
+    private TimeSlot timeSlot;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Archive User");
+        user.setEmail("archive@test.com");
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        room = new Room();
+        room.setName("Archive Room");
+        room.setCapacity(10);
+        room.setStatus(RoomStatus.EMPTY);
+        room = roomRepository.save(room);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+    }
+
+    @Test
+    @DisplayName("Saklama süresini aşan aylık bölüm gzip'li CSV olarak arşivlenip silinmeli")
+    void eskiBolum_ArsivlenipSilinir() throws Exception {
+        // Bölümü olmayan ay önce varsayılan bölüme düşer, bölüm oluşturulunca oraya taşınır
+        Integer oldId = insertOld(15);
+        jdbcTemplate.queryForObject("SELECT create_reservation_partitions(?, ?)", Integer.class,
+            oldMonth.atDay(1), oldMonth.atDay(1));
+        assertEquals(partitionName(), partitionOf(oldId));
+
+        assertTrue(partitionManager.archiveExpired().contains(oldMonth));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partitionName()));
+        assertEquals(0, count(oldId));
+
+        String csv = archivedCsv();
+        assertTrue(csv.startsWith(CSV_HEADER));
+        assertTrue(csv.contains(oldId + "," + user.getUserId() + "," + room.getRoomId() + ",,"));
+    }
+
+    @Test
+    @DisplayName("Varsayılan bölümde kalmış eski ay da arşivlenmeli")
+    void varsayilanBolumdekiEskiAy_Arsivlenir() throws Exception {
+        Integer oldId = insertOld(3);
+        assertEquals("reservations_default", partitionOf(oldId));
+
+        assertTrue(partitionManager.archiveExpired().contains(oldMonth));
+        assertEquals(0, count(oldId));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass(?)::text", String.class, partitionName()));
+        assertTrue(archivedCsv().contains(oldId + "," + user.getUserId() + ","));
+    }
+
+    @Test
+    @DisplayName("Aynı ay tekrar arşivlenirse yeni satırlar mevcut arşive eklenmeli")
+    void tekrarArsivleme_MevcutArsiveEklenir() throws Exception {
+        Integer firstId = insertOld(10);
+        assertTrue(partitionManager.archiveExpired().contains(oldMonth));
+
+        Integer secondId = insertOld(20);
+        assertTrue(partitionManager.archiveExpired().contains(oldMonth));
+        assertEquals(0, count(secondId));
+
+        String csv = archivedCsv();
+        assertTrue(csv.startsWith(CSV_HEADER));
+        assertEquals(csv.indexOf(CSV_HEADER), csv.lastIndexOf(CSV_HEADER), "Başlık bir kez yazılmalı");
+        assertTrue(csv.contains(firstId + ",") && csv.contains(secondId + ","));
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT row_count FROM reservation_archive WHERE archive_month = ?", Integer.class, oldMonth.atDay(1)));
+    }
+
+    private Integer insertOld(int day) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO reservations (user_id, room_id, time_slot_id, reservation_date, status) " +
+            "VALUES (?, ?, ?, ?, 'ONAYLANDI') RETURNING reservation_id", Integer.class,
+            user.getUserId(), room.getRoomId(), timeSlot.getTimeSlotId(), oldMonth.atDay(day));
+    }
+
+    private String partitionName() {
+        return String.format("reservations_%d_%02d", oldMonth.getYear(), oldMonth.getMonthValue());
+    }
+
+    private String partitionOf(Integer reservationId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT tableoid::regclass::text FROM reservations WHERE reservation_id = ?", String.class, reservationId);
+    }
+
+    private int count(Integer reservationId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM reservations WHERE reservation_id = ?", Integer.class, reservationId);
+    }
+
+    private String archivedCsv() throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(partitionManager.getArchive(oldMonth)))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
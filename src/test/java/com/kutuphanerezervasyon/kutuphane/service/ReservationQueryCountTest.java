@@ -0,0 +1,228 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
+import com.kutuphanerezervasyon.kutuphane.entity.*;
+import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Rezervasyon listeleme metotlarının sorgu sayısı testi
+ Her metot rezervasyon sayısından bağımsız olarak sabit sayıda SQL çalıştırmalı (N+1 olmamalı)
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+@DisplayName("Rezervasyon Sorgu Sayısı Test")
+class ReservationQueryCountTest {
+
+    private static final int RESERVATION_COUNT = 3;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private LocalDate date;
+    private User firstUser;
+    private Reservation firstReservation;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        date = LocalDate.now().plusYears(5);
+
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setStartTime(LocalTime.of(9, 0));
+        timeSlot.setEndTime(LocalTime.of(10, 0));
+        timeSlot = timeSlotRepository.save(timeSlot);
+
+        // Her rezervasyon farklı kullanıcı/oda/ekipmana bağlı - LAZY yükleme olsaydı her biri ayrı sorgu olurdu
+        for (int i = 0; i < RESERVATION_COUNT; i++) {
+            User user = new User();
+            user.setName("Sorgu User " + i);
+            user.setEmail("sorgu" + i + "@test.com");
+            user.setPassword("password");
+            user.setRole(UserRole.USER);
+            user = userRepository.save(user);
+
+            Room room = new Room();
+            room.setName("Sorgu Room " + i);
+            room.setCapacity(4);
+            room.setStatus(RoomStatus.EMPTY);
+            room = roomRepository.save(room);
+
+            Equipment equipment = new Equipment();
+            equipment.setName("Sorgu Equipment " + i);
+            equipment.setType("Laptop");
+            equipment.setStatus(EquipmentStatus.AVAILABLE);
+            equipment = equipmentRepository.save(equipment);
+
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setRoom(room);
+            reservation.setEquipment(equipment);
+            reservation.setTimeSlot(timeSlot);
+            reservation.setReservationDate(date);
+            reservation.setStatus(ReservationStatus.BEKLENIYOR);
+            reservation = reservationRepository.save(reservation);
+
+            if (i == 0) {
+                firstUser = user;
+                firstReservation = reservation;
+            }
+        }
+
+        // İlişkiler önbellekten değil veritabanından okunsun
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Çalıştırılan SQL sayısı");
+        return result;
+    }
+
+    @Test
+    @DisplayName("Tarihe göre listeleme tek sorgu")
+    void tariheGore_TekSorgu() {
+        List<ReservationDTO> result = countStatements(1, () -> reservationService.getReservationsByDate(date));
+        assertEquals(RESERVATION_COUNT, result.size());
+        assertNotNull(result.get(0).getRoom().getName());
+    }
+
+    @Test
+    @DisplayName("Duruma göre listeleme tek sorgu")
+    void durumaGore_TekSorgu() {
+        List<ReservationDTO> result = countStatements(1,
+            () -> reservationService.getReservationsByStatus(ReservationStatus.BEKLENIYOR));
+        assertTrue(result.size() >= RESERVATION_COUNT);
+    }
+
+    @Test
+    @DisplayName("Bekleyen rezervasyonlar tek sorgu")
+    void bekleyenler_TekSorgu() {
+        List<ReservationDTO> result = countStatements(1, () -> reservationService.getPendingReservations());
+        assertTrue(result.size() >= RESERVATION_COUNT);
+    }
+
+    @Test
+    @DisplayName("Kullanıcının rezervasyonları - varlık kontrolü + tek sorgu")
+    void kullaniciRezervasyonlari_IkiSorgu() {
+        List<ReservationDTO> result = countStatements(2,
+            () -> reservationService.getReservationsByUserId(firstUser.getUserId(), null));
+        assertEquals(1, result.size());
+        assertNotNull(result.get(0).getEquipment().getName());
+    }
+
+    @Test
+    @DisplayName("Kullanıcının aktif rezervasyonları - varlık kontrolü + tek sorgu")
+    void kullaniciAktifRezervasyonlari_IkiSorgu() {
+        countStatements(2, () -> reservationService.getActiveReservationsByUserId(firstUser.getUserId()));
+    }
+
+    @Test
+    @DisplayName("Tekil rezervasyon tek sorgu")
+    void tekilRezervasyon_TekSorgu() {
+        ReservationDTO result = countStatements(1,
+            () -> reservationService.getReservationById(firstReservation.getReservationId()));
+        assertNotNull(result.getTimeSlot().getStartTime());
+    }
+
+    @Test
+    @DisplayName("Sayfalı sorgu tek sorgu")
+    void sayfaliSorgu_TekSorgu() {
+        ReservationQuery query = new ReservationQuery();
+        query.setFromDate(date);
+        query.setToDate(date);
+        assertEquals(RESERVATION_COUNT,
+            countStatements(1, () -> reservationService.queryReservations(query)).getItems().size());
+    }
+
+    @Test
+    @DisplayName("Dışa aktarma tek sorgu, persistence context'e entity yüklenmez")
+    void disaAktarma_TekSorgu_EntityYuklenmez() {
+        ReservationQuery query = new ReservationQuery();
+        query.setFromDate(date);
+        query.setToDate(date);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        countStatements(1, () -> {
+            try {
+                reservationExportService.export(query, ReservationExportService.Format.NDJSON, out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+
+        assertEquals(RESERVATION_COUNT, out.toString(StandardCharsets.UTF_8).trim().split("\n").length);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Kayıtlı referans verisi tekrar okunduğunda ikinci seviye önbellekten gelir")
+    void referansVerisi_IkinciOkumadaSorguYok() {
+        // Test transaction'ında eklenen satırlar commit'e kadar önbelleğe girmez, açılışta eklenen admin kullanılır
+        // READ_WRITE önbellek aynı transaction içinde konan kaydı göstermez, okumalar ayrı transaction'larda yapılır
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Integer rootId = userRepository.findByEmail("root@kutuphane.com").orElseThrow().getUserId();
+        newTransaction.execute(status -> userRepository.findById(rootId).orElseThrow());
+
+        User root = countStatements(0,
+            () -> newTransaction.execute(status -> userRepository.findById(rootId).orElseThrow()));
+        assertEquals(UserRole.ADMIN, root.getRole());
+    }
+}
@@ -1,9 +1,15 @@
 package com.kutuphanerezervasyon.kutuphane.service;
 
+import com.kutuphanerezervasyon.kutuphane.dto.AvailabilityMatrix;
+import com.kutuphanerezervasyon.kutuphane.dto.BatchReservationResult;
 import com.kutuphanerezervasyon.kutuphane.dto.ReservationDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationPage;
+import com.kutuphanerezervasyon.kutuphane.dto.ReservationQuery;
 import com.kutuphanerezervasyon.kutuphane.dto.ReservationRequest;
+import com.kutuphanerezervasyon.kutuphane.dto.TimeSlotDTO;
 import com.kutuphanerezervasyon.kutuphane.entity.*;
 import com.kutuphanerezervasyon.kutuphane.enums.*;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
 import com.kutuphanerezervasyon.kutuphane.exception.MaxReservationLimitException;
 import com.kutuphanerezervasyon.kutuphane.exception.ReservationConflictException;
 import com.kutuphanerezervasyon.kutuphane.repository.*;
@@ -14,8 +20,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +51,21 @@ class ReservationServiceIntegrationTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private ReservationOccupancyIndex occupancyIndex;
+
+    @Autowired
+    private UserQuotaLedger quotaLedger;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private RoomService roomService;
+
     private User testUser;
     private Room testRoom;
     private Equipment testEquipment;
@@ -78,6 +102,15 @@ class ReservationServiceIntegrationTest {
         testTimeSlot = timeSlotRepository.save(testTimeSlot);
     }
 
+    private User newUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setRole(UserRole.USER);
+        return userRepository.save(user);
+    }
+
     @Test
     @DisplayName("Rezervasyon başarıyla oluşturulmalı")
     void rezervasyonOlustur_Basarili() {
@@ -175,4 +208,190 @@ class ReservationServiceIntegrationTest {
         assertThrows(MaxReservationLimitException.class,
             () -> reservationService.createReservation(request3));
     }
+
+    @Test
+    @DisplayName("Onaylanan oda rezervasyonu doluluk indeksinden çakışma vermeli")
+    void onaylananOda_IkinciRezervasyondaCakismaVerir() {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+
+        ReservationRequest request1 = new ReservationRequest();
+        request1.setUserId(testUser.getUserId());
+        request1.setRoomId(testRoom.getRoomId());
+        request1.setTimeSlotId(testTimeSlot.getTimeSlotId());
+        request1.setReservationDate(futureDate);
+        ReservationDTO created = reservationService.createReservation(request1);
+        reservationService.confirmReservation(created.getReservationId());
+
+        assertTrue(occupancyIndex.isRoomBooked(testRoom.getRoomId(), futureDate, testTimeSlot.getTimeSlotId()));
+
+        User otherUser = newUser("Other User", "other@test.com");
+
+        ReservationRequest request2 = new ReservationRequest();
+        request2.setUserId(otherUser.getUserId());
+        request2.setRoomId(testRoom.getRoomId());
+        request2.setTimeSlotId(testTimeSlot.getTimeSlotId());
+        request2.setReservationDate(futureDate);
+
+        assertThrows(ReservationConflictException.class,
+            () -> reservationService.createReservation(request2));
+
+        reservationService.adminCancelReservation(created.getReservationId());
+        assertFalse(occupancyIndex.isRoomBooked(testRoom.getRoomId(), futureDate, testTimeSlot.getTimeSlotId()));
+    }
+
+    @Test
+    @DisplayName("Toplu rezervasyon - istek içi çakışma ve hatalar kalem bazında dönmeli")
+    void topluRezervasyon_KalemBazindaSonucDoner() {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+
+        ReservationRequest valid = new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate);
+        ReservationRequest duplicate = new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate);
+        ReservationRequest missingRoom = new ReservationRequest(
+            testUser.getUserId(), -1, null, testTimeSlot.getTimeSlotId(), futureDate.plusDays(1));
+
+        List<BatchReservationResult> results =
+            reservationService.createReservationsBatch(List.of(valid, duplicate, missingRoom));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertNotNull(results.get(0).getReservation().getReservationId());
+        assertTrue(reservationRepository.existsById(results.get(0).getReservation().getReservationId()));
+        assertFalse(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+    }
+
+    @Test
+    @DisplayName("Toplu rezervasyon - aynı oda slotunu isteyen farklı kullanıcılar tekli istekteki gibi kabul edilmeli")
+    void topluRezervasyon_AyniOdaSlotuTekliIleAyniKural() {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+        User otherUser = newUser("Other User", "other@test.com");
+
+        List<BatchReservationResult> results = reservationService.createReservationsBatch(List.of(
+            new ReservationRequest(testUser.getUserId(), testRoom.getRoomId(), testEquipment.getEquipmentId(),
+                testTimeSlot.getTimeSlotId(), futureDate),
+            new ReservationRequest(otherUser.getUserId(), testRoom.getRoomId(), testEquipment.getEquipmentId(),
+                testTimeSlot.getTimeSlotId(), futureDate)));
+
+        // İkisi de bekleyen; tekli yolda da ikinci istek onaylı rezervasyon olmadığı için kabul edilir
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+    }
+
+    @Test
+    @DisplayName("Kota defteri oluşturma ve iptalde güncellenmeli")
+    void kotaDefteri_OlusturmaVeIptaldeGuncellenir() {
+        ReservationRequest request = new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), LocalDate.now().plusDays(2));
+
+        ReservationDTO created = reservationService.createReservation(request);
+        assertEquals(1, quotaLedger.activeCount(testUser.getUserId()));
+
+        // İptal commit edilene kadar kota düşmez; test transaction'ı commit edilmez
+        reservationService.cancelReservation(created.getReservationId());
+        assertEquals(1, quotaLedger.activeCount(testUser.getUserId()));
+    }
+
+    @Test
+    @DisplayName("Rezervasyon listesi cursor ile sayfalanmalı")
+    void rezervasyonListesi_CursorIleSayfalanir() {
+        User otherUser = newUser("Other User", "other@test.com");
+
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+        reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate));
+        reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate.plusDays(1)));
+        reservationService.createReservation(new ReservationRequest(
+            otherUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate.plusDays(2)));
+
+        ReservationQuery query = new ReservationQuery();
+        query.setRoomId(testRoom.getRoomId());
+        query.setSize(2);
+        ReservationPage first = reservationService.queryReservations(query);
+
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
+        assertEquals(futureDate.plusDays(2), first.getItems().get(0).getReservationDate());
+
+        query.setCursor(first.getNextCursor());
+        ReservationPage second = reservationService.queryReservations(query);
+
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(futureDate, second.getItems().get(0).getReservationDate());
+    }
+
+    @Test
+    @DisplayName("Rezervasyonlar CSV olarak dışa aktarılmalı")
+    void disaAktarma_CsvSatirlariYazilir() throws Exception {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+        reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate));
+        reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate.plusDays(1)));
+
+        ReservationQuery query = new ReservationQuery();
+        query.setRoomId(testRoom.getRoomId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        reservationExportService.export(query, ReservationExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).trim().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("reservationId,reservationDate"));
+        assertTrue(lines[1].contains(futureDate.toString()));
+        assertTrue(lines[2].contains(futureDate.plusDays(1).toString()));
+    }
+
+    @Test
+    @DisplayName("Müsaitlik matrisi onaylı rezervasyonu ve bakımdaki ekipmanı dolu göstermeli")
+    void musaitlikMatrisi_OnayliSlotDoluGorunur() {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+        ReservationDTO created = reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, testTimeSlot.getTimeSlotId(), futureDate));
+        reservationService.confirmReservation(created.getReservationId());
+        testEquipment.setStatus(EquipmentStatus.MAINTENANCE);
+        equipmentRepository.save(testEquipment);
+
+        AvailabilityMatrix matrix = availabilityService.getMatrix(futureDate, futureDate.plusDays(1));
+
+        assertEquals(List.of(futureDate, futureDate.plusDays(1)), matrix.getDates());
+        int slot = matrix.getTimeSlots().stream().map(TimeSlotDTO::getTimeSlotId).toList()
+            .indexOf(testTimeSlot.getTimeSlotId());
+        AvailabilityMatrix.ResourceAvailability room = matrix.getRooms().stream()
+            .filter(r -> r.getId().equals(testRoom.getRoomId())).findFirst().orElseThrow();
+        assertEquals('0', room.getDays().get(0).charAt(slot));
+        assertEquals('1', room.getDays().get(1).charAt(slot));
+
+        AvailabilityMatrix.ResourceAvailability equipment = matrix.getEquipment().stream()
+            .filter(e -> e.getId().equals(testEquipment.getEquipmentId())).findFirst().orElseThrow();
+        assertFalse(equipment.getDays().get(1).contains("1"));
+
+        assertThrows(InvalidOperationException.class,
+            () -> availabilityService.getMatrix(futureDate, futureDate.plusDays(400)));
+    }
+
+    @Test
+    @DisplayName("Müsait oda önbelleği onay ve iptalde güncellenmeli")
+    void musaitOdaOnbellegi_OnayVeIptaldeSilinir() {
+        LocalDate futureDate = LocalDate.now().plusDays(1);
+        Integer slotId = testTimeSlot.getTimeSlotId();
+        assertTrue(roomService.getAvailableRooms(futureDate, slotId).stream()
+            .anyMatch(r -> r.getRoomId().equals(testRoom.getRoomId())));
+        // Aynı anahtar tekrar istendiğinde aynı liste önbellekten döner
+        assertSame(roomService.getAvailableRooms(futureDate, slotId),
+            roomService.getAvailableRooms(futureDate, slotId));
+
+        ReservationDTO created = reservationService.createReservation(new ReservationRequest(
+            testUser.getUserId(), testRoom.getRoomId(), null, slotId, futureDate));
+        reservationService.confirmReservation(created.getReservationId());
+        assertFalse(roomService.getAvailableRooms(futureDate, slotId).stream()
+            .anyMatch(r -> r.getRoomId().equals(testRoom.getRoomId())));
+
+        reservationService.adminCancelReservation(created.getReservationId());
+        assertTrue(roomService.getAvailableRooms(futureDate, slotId).stream()
+            .anyMatch(r -> r.getRoomId().equals(testRoom.getRoomId())));
+    }
 }
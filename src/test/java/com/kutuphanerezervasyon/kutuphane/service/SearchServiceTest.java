@@ -0,0 +1,134 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.RoomDTO;
+import com.kutuphanerezervasyon.kutuphane.dto.SearchResult;
+import com.kutuphanerezervasyon.kutuphane.entity.Room;
+import com.kutuphanerezervasyon.kutuphane.entity.User;
+import com.kutuphanerezervasyon.kutuphane.enums.RoomStatus;
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.repository.RoomRepository;
+import com.kutuphanerezervasyon.kutuphane.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Oda, ekipman ve kullanıcı araması
+ Sonuç sınırı küçük tutulur, sınırı aşan aramada hasMore gözlenir
+ */
+@SpringBootTest(properties = "app.search.max-results=2")
+@Transactional
+@DisplayName("Arama Test")
+class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Arama Türkçe karakter ve büyük/küçük harf duyarsız olmalı, kelime başı eşleşmesi önce gelmeli")
+    void arama_TurkceKarakterDuyarsizVeSirali() {
+        Room inner = saveRoom("Sessiz Şükrü Çalışma Odası");
+        Room prefix = saveRoom("Şükrü Çalışma Odası");
+
+        List<Integer> ids = ids(searchService.searchRooms("SUKRU calisma"));
+        assertEquals(List.of(prefix.getRoomId(), inner.getRoomId()), ids);
+        assertEquals(ids, ids(roomService.searchRoomsByName("şükrü ÇALIŞMA")));
+
+        User ismail = new User();
+        ismail.setName("İsmail Iğdır");
+        ismail.setEmail("ismail.arama@test.com");
+        ismail.setPassword("password");
+        ismail.setRole(UserRole.USER);
+        userRepository.save(ismail);
+
+        assertTrue(searchService.searchUsers("ismail igdir").getItems().stream()
+            .anyMatch(u -> u.getEmail().equals("ismail.arama@test.com")));
+        assertTrue(searchService.searchUsers("100%").getItems().isEmpty());
+        assertTrue(searchService.searchRooms("  ").getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Kelime başı eşleşmesi kelime içi eşleşmeden önce gelmeli")
+    void kelimeBasi_KelimeIcindenOnceGelir() {
+        Room middle = saveRoom("Grupkütüphane Salonu");
+        Room wordStart = saveRoom("Merkez Kütüphane Salonu");
+        Room start = saveRoom("Kütüphane Salonu");
+
+        assertEquals(List.of(start.getRoomId(), wordStart.getRoomId()),
+            ids(searchService.searchRooms("kutuphane salonu")));
+
+        roomRepository.delete(start);
+        roomRepository.flush();
+        assertEquals(List.of(wordStart.getRoomId(), middle.getRoomId()),
+            ids(searchService.searchRooms("kutuphane salonu")));
+    }
+
+    @Test
+    @DisplayName("Sınırı aşan arama sonucu hasMore ile işaretlenmeli")
+    void sinirAsildi_HasMoreDoner() {
+        saveRoom("Sınır Odası 1");
+        saveRoom("Sınır Odası 2");
+
+        SearchResult<RoomDTO> exact = searchService.searchRooms("sinir odasi");
+        assertEquals(2, exact.getItems().size());
+        assertFalse(exact.isHasMore());
+        assertEquals(2, exact.getMaxResults());
+
+        saveRoom("Sınır Odası 3");
+        SearchResult<RoomDTO> truncated = searchService.searchRooms("sinir odasi");
+        assertEquals(2, truncated.getItems().size());
+        assertTrue(truncated.isHasMore());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Yarıda kalmış (geçersiz) trigram indeksi açılışta yeniden oluşturulmalı")
+    void gecersizIndeks_YenidenOlusturulur() {
+        searchService.prepareIndexes();
+        // CREATE INDEX CONCURRENTLY yarıda kesildiğinde kalan durum
+        jdbcTemplate.update("UPDATE pg_index SET indisvalid = false WHERE indexrelid = 'ix_rooms_name_trgm'::regclass");
+        assertFalse(isValid("ix_rooms_name_trgm"));
+
+        searchService.prepareIndexes();
+
+        assertTrue(isValid("ix_rooms_name_trgm"));
+        assertEquals(Boolean.TRUE, searchService.getStats().get("trigramIndexes"));
+    }
+
+    private boolean isValid(String indexName) {
+        return jdbcTemplate.queryForObject(
+            "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)", Boolean.class, indexName);
+    }
+
+    private Room saveRoom(String name) {
+        Room room = new Room();
+        room.setName(name);
+        room.setCapacity(2);
+        room.setStatus(RoomStatus.EMPTY);
+        return roomRepository.save(room);
+    }
+
+    private static List<Integer> ids(SearchResult<RoomDTO> result) {
+        return result.getItems().stream().map(RoomDTO::getRoomId).toList();
+    }
+}
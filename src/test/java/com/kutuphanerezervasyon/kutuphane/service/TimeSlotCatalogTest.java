@@ -0,0 +1,107 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.dto.TimeSlotDTO;
+import com.kutuphanerezervasyon.kutuphane.exception.InvalidOperationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Zaman dilimi kataloğu
+ Katalog sadece commit edilmiş satırları tuttuğu için testler transaction'ları gerçekten commit eder;
+ oluşturulan dilimler testten sonra silinir ve katalog yeniden yüklenir
+ */
+@SpringBootTest
+@DisplayName("Zaman Dilimi Kataloğu Test")
+class TimeSlotCatalogTest {
+
+    @Autowired
+    private TimeSlotCatalog timeSlotCatalog;
+
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(id -> jdbcTemplate.update("DELETE FROM time_slots WHERE time_slot_id = ?", id));
+        timeSlotCatalog.reload();
+    }
+
+    @Test
+    @DisplayName("Katalog aralık sorgusunu cevaplamalı ve çakışan dilimi reddetmeli")
+    void aralikVeCakisma() {
+        TimeSlotDTO first = create(LocalTime.of(22, 0), LocalTime.of(22, 30));
+        TimeSlotDTO second = create(LocalTime.of(22, 30), LocalTime.of(23, 0));
+
+        assertEquals(List.of(first, second),
+            timeSlotService.getTimeSlotsInRange(LocalTime.of(22, 0), LocalTime.of(23, 0)));
+        assertEquals(List.of(second),
+            timeSlotService.getTimeSlotsInRange(LocalTime.of(22, 15), LocalTime.of(23, 30)));
+
+        assertThrows(InvalidOperationException.class, () -> create(LocalTime.of(22, 15), LocalTime.of(22, 45)));
+        assertThrows(InvalidOperationException.class, () -> create(LocalTime.of(22, 30), LocalTime.of(23, 0)));
+
+        timeSlotService.deleteTimeSlot(second.getTimeSlotId());
+        assertTrue(timeSlotCatalog.findById(second.getTimeSlotId()).isEmpty());
+        assertEquals(second.getStartTime(), create(LocalTime.of(22, 30), LocalTime.of(22, 45)).getStartTime());
+    }
+
+    @Test
+    @DisplayName("Değişiklik commit'ten önce görünmemeli, geri alınırsa hiç uygulanmamalı")
+    void commitEdilmeyenDegisiklik_KatalogaGirmez() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer rolledBack = transaction.execute(status -> {
+            TimeSlotDTO slot = create(LocalTime.of(23, 0), LocalTime.of(23, 30));
+            assertTrue(timeSlotCatalog.findById(slot.getTimeSlotId()).isEmpty());
+            assertTrue(CompletableFuture.supplyAsync(() -> timeSlotCatalog.findById(slot.getTimeSlotId())).join()
+                .isEmpty(), "Başka bir istek commit edilmemiş dilimi görmemeli");
+            status.setRollbackOnly();
+            return slot.getTimeSlotId();
+        });
+        assertTrue(timeSlotCatalog.findById(rolledBack).isEmpty());
+
+        Integer committed = transaction.execute(status ->
+            create(LocalTime.of(23, 0), LocalTime.of(23, 30)).getTimeSlotId());
+        assertTrue(timeSlotCatalog.findById(committed).isPresent());
+    }
+
+    @Test
+    @DisplayName("Servis dışından eklenen dilim yeniden yüklemede kataloğa girmeli")
+    void yenidenYukleme_DisaridanEklenenDilim() {
+        Integer slotId = jdbcTemplate.queryForObject(
+            "INSERT INTO time_slots (start_time, end_time) VALUES ('23:30', '23:45') RETURNING time_slot_id",
+            Integer.class);
+        created.add(slotId);
+        assertTrue(timeSlotCatalog.findById(slotId).isEmpty());
+
+        timeSlotCatalog.reload();
+
+        assertEquals(LocalTime.of(23, 30), timeSlotCatalog.findById(slotId).orElseThrow().getStartTime());
+    }
+
+    private TimeSlotDTO create(LocalTime start, LocalTime end) {
+        TimeSlotDTO slot = timeSlotService.createTimeSlot(new TimeSlotDTO(null, start, end));
+        created.add(slot.getTimeSlotId());
+        return slot;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kutuphanerezervasyon.kutuphane.service;
+
+import com.kutuphanerezervasyon.kutuphane.enums.UserRole;
+import com.kutuphanerezervasyon.kutuphane.exception.MaxReservationLimitException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ Kullanıcı kota defterinin transaction sınırları
+ Veritabanında karşılığı olmayan kullanıcı/rezervasyon ID'leri kullanılır, hesap boş yüklenir
+ */
+@SpringBootTest(properties = "app.reservation.max-active-per-user=1")
+@DisplayName("Kota Defteri Test")
+class UserQuotaLedgerTest {
+
+    @Autowired
+    private UserQuotaLedger quotaLedger;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("İptal commit edilene kadar kota düşmemeli, geri alınan iptal kotayı değiştirmemeli")
+    void iptal_CommitSonrasiDuser() {
+        int userId = 900_000_101;
+        LocalDateTime endsAt = LocalDateTime.now().plusDays(1);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> quotaLedger.acquire(userId, UserRole.USER, 1, endsAt));
+        assertEquals(1, quotaLedger.activeCount(userId));
+
+        transaction.executeWithoutResult(status -> {
+            quotaLedger.release(userId, 1);
+            assertEquals(1, quotaLedger.activeCount(userId));
+            // Başka bir istek iptal commit edilmeden limiti aşamaz
+            CompletionException blocked = assertThrows(CompletionException.class, () -> CompletableFuture
+                    .runAsync(() -> quotaLedger.acquire(userId, UserRole.USER, 2, endsAt)).join());
+            assertInstanceOf(MaxReservationLimitException.class, blocked.getCause());
+            status.setRollbackOnly();
+        });
+        assertEquals(1, quotaLedger.activeCount(userId));
+
+        transaction.executeWithoutResult(status -> quotaLedger.release(userId, 1));
+        assertEquals(0, quotaLedger.activeCount(userId));
+    }
+}